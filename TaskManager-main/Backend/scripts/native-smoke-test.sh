@@ -0,0 +1,63 @@
+#!/usr/bin/env bash
+# Smoke test del ejecutable nativo contra PostGIS local.
+#
+# Uso (desde Backend/):
+#   ./mvnw -Pnative native:compile -DskipTests
+#   SMOKE_USER=admin SMOKE_PASSWORD=123 ./scripts/native-smoke-test.sh
+#
+# Levanta target/taskmanager, espera el puerto, hace login en /api/auth/login y
+# consulta /api/tasks con el token. Sale con código != 0 si algo falla.
+set -euo pipefail
+
+BIN="${BIN:-target/taskmanager}"
+PORT="${PORT:-8081}"
+BASE="http://localhost:${PORT}"
+SMOKE_USER="${SMOKE_USER:-admin}"
+SMOKE_PASSWORD="${SMOKE_PASSWORD:-123}"
+export SPRING_DATASOURCE_URL="${SPRING_DATASOURCE_URL:-jdbc:postgresql://localhost:5432/control2_db}"
+export SPRING_DATASOURCE_USERNAME="${SPRING_DATASOURCE_USERNAME:-postgres}"
+export SPRING_DATASOURCE_PASSWORD="${SPRING_DATASOURCE_PASSWORD:-123}"
+
+if [[ ! -x "$BIN" ]]; then
+    echo "No existe $BIN; compila antes con ./mvnw -Pnative native:compile -DskipTests" >&2
+    exit 1
+fi
+
+LOG="$(mktemp)"
+START=$(date +%s%N)
+"$BIN" --server.port="$PORT" >"$LOG" 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null || true; rm -f "$LOG"' EXIT
+
+# Esperar a que responda (máx. 30 s)
+for _ in $(seq 1 300); do
+    if curl -s -o /dev/null "$BASE/api/auth/login"; then
+        break
+    fi
+    if ! kill -0 "$PID" 2>/dev/null; then
+        echo "El binario terminó al arrancar:" >&2
+        cat "$LOG" >&2
+        exit 1
+    fi
+    sleep 0.1
+done
+echo "Arranque: $(( ($(date +%s%N) - START) / 1000000 )) ms"
+
+LOGIN=$(curl -sf -X POST "$BASE/api/auth/login" \
+    -H 'Content-Type: application/json' \
+    -d "{\"username\":\"${SMOKE_USER}\",\"password\":\"${SMOKE_PASSWORD}\"}")
+TOKEN=$(echo "$LOGIN" | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+USER_ID=$(echo "$LOGIN" | sed -n 's/.*"userId":\([0-9]*\).*/\1/p')
+if [[ -z "$TOKEN" || -z "$USER_ID" ]]; then
+    echo "Login sin token: $LOGIN" >&2
+    exit 1
+fi
+echo "Login OK (userId=$USER_ID)"
+
+STATUS=$(curl -s -o /dev/null -w '%{http_code}' "$BASE/api/tasks?userId=${USER_ID}" \
+    -H "Authorization: Bearer ${TOKEN}")
+if [[ "$STATUS" != "200" ]]; then
+    echo "/api/tasks respondió $STATUS" >&2
+    exit 1
+fi
+echo "/api/tasks OK"
@@ -0,0 +1,64 @@
+// Comparación de capacidad: /api/tasks (JDBC, un hilo de Tomcat por petición) contra
+// /api/rx/tasks (R2DBC, respuesta asíncrona) con la misma carga de usuarios concurrentes.
+//
+// Uso (desde Backend/, con el backend y PostGIS arriba):
+//   k6 run -e TOKEN=<jwt> -e USER_ID=1 scripts/rx-vs-servlet-load-test.js
+//   k6 run -e TOKEN=<jwt> -e USER_ID=1 -e BASE=http://localhost:8080 scripts/rx-vs-servlet-load-test.js
+//
+// Los dos escenarios corren uno después del otro (startTime) y suben hasta MAX_VUS conexiones.
+// Comparar por escenario: http_req_duration p(95), http_req_failed y http_reqs/s en el
+// punto donde el servlet satura (server.tomcat.threads.max, pool Hikari) y el reactivo no.
+// Con carga alta el RateLimitFilter responde 429: subir rate-limit.* o usar varios tokens.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE = __ENV.BASE || 'http://localhost:8080';
+const TOKEN = __ENV.TOKEN;
+const USER_ID = __ENV.USER_ID || '1';
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '2000', 10);
+const STAGE = __ENV.STAGE || '1m';
+
+function ramp(startTime, exec) {
+    return {
+        executor: 'ramping-vus',
+        exec,
+        startTime,
+        startVUs: 0,
+        stages: [
+            { duration: STAGE, target: Math.floor(MAX_VUS / 4) },
+            { duration: STAGE, target: Math.floor(MAX_VUS / 2) },
+            { duration: STAGE, target: MAX_VUS },
+            { duration: '30s', target: 0 },
+        ],
+        gracefulRampDown: '10s',
+        tags: { api: exec },
+    };
+}
+
+export const options = {
+    scenarios: {
+        servlet: ramp('0s', 'servlet'),
+        reactive: ramp('4m', 'reactive'),
+    },
+    thresholds: {
+        'http_req_duration{api:servlet}': ['p(95)<2000'],
+        'http_req_duration{api:reactive}': ['p(95)<2000'],
+        'http_req_failed{api:servlet}': ['rate<0.05'],
+        'http_req_failed{api:reactive}': ['rate<0.05'],
+    },
+};
+
+const params = {
+    headers: { Authorization: `Bearer ${TOKEN}`, Accept: 'application/json' },
+    timeout: '30s',
+};
+
+export function servlet() {
+    const res = http.get(`${BASE}/api/tasks?userId=${USER_ID}`, params);
+    check(res, { 'servlet 200': (r) => r.status === 200 });
+}
+
+export function reactive() {
+    const res = http.get(`${BASE}/api/rx/tasks?userId=${USER_ID}`, params);
+    check(res, { 'rx 200': (r) => r.status === 200 });
+}
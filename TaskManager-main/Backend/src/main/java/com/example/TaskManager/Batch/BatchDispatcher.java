@@ -0,0 +1,258 @@
+package com.example.TaskManager.Batch;
+
+import com.example.TaskManager.DTO.BatchRequestDTO;
+import com.example.TaskManager.DTO.BatchResponseDTO;
+import com.example.TaskManager.Monitoring.RequestMonitor;
+import com.example.TaskManager.Security.RateLimit.RateLimitFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.access.WebInvocationPrivilegeEvaluator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Ejecuta las sub-peticiones de POST /api/batch contra los controladores existentes, pasando directo por el
+ * DispatcherServlet: el JWT se validó una vez para el batch y aquí solo se aplica, por sub-petición, la misma
+ * autorización de SecurityConfig (WebInvocationPrivilegeEvaluator) y el mismo cupo de RateLimitFilter.
+ *
+ * Sin transacción: las lecturas (GET) seguidas corren en paralelo y cada escritura es una barrera, así
+ * "toggle, luego recargar lista y estadísticas" ve el toggle. Con transactional todas corren en serie en una
+ * transacción; la primera respuesta >= 400 la revierte y las siguientes no se ejecutan (424). Si todas
+ * respondieron bien pero la transacción igual se revirtió al confirmar (un servicio la marcó rollback-only y
+ * el error no llegó a la respuesta), todas pasan a 424: ninguna quedó aplicada.
+ *
+ * Las lecturas en el pool se miden en su hilo (RequestMonitor.beginWorker) y se suman a la petición del batch,
+ * así X-SQL-Statement-Count, Server-Timing y la métrica de sentencias cubren todo el batch. Una lectura que
+ * vence el timeout no alcanza a sumar lo suyo.
+ */
+@Slf4j
+@Component
+public class BatchDispatcher implements DisposableBean {
+
+    static final int FAILED_DEPENDENCY = 424;
+
+    // Sin "..", "//", ";" ni caracteres codificados: aquí no pasa el firewall de Spring Security
+    private static final Pattern SAFE_PATH =
+            Pattern.compile("/api/(?!batch\\b|rx/)(?!.*\\.\\.)[A-Za-z0-9_.,-]+(?:/[A-Za-z0-9_.,-]+)*/?");
+
+    private static final Set<String> METHODS = Set.of("GET", "POST", "PUT", "PATCH", "DELETE");
+
+    private final DispatcherServlet dispatcherServlet;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final WebInvocationPrivilegeEvaluator privilegeEvaluator;
+    private final RateLimitFilter rateLimitFilter;
+    private final ThreadPoolExecutor executor;
+    private final int maxRequests;
+    private final long timeoutMillis;
+
+    public BatchDispatcher(DispatcherServlet dispatcherServlet,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager,
+                           WebInvocationPrivilegeEvaluator privilegeEvaluator,
+                           RateLimitFilter rateLimitFilter,
+                           @Value("${batch.max-requests:20}") int maxRequests,
+                           @Value("${batch.parallelism:4}") int parallelism,
+                           @Value("${batch.timeout-ms:10000}") long timeoutMillis) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.privilegeEvaluator = privilegeEvaluator;
+        this.rateLimitFilter = rateLimitFilter;
+        this.maxRequests = maxRequests;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger counter = new AtomicInteger();
+        // Cola llena: la lectura corre en el hilo de la petición (se degrada a serie, no se rechaza)
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(4 * maxRequests),
+                r -> {
+                    Thread t = new Thread(r, "batch-read-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public int maxRequests() {
+        return maxRequests;
+    }
+
+    public BatchResponseDTO execute(BatchRequestDTO batch, HttpServletRequest request, Authentication authentication) {
+        List<BatchRequestDTO.Item> items = batch.getRequests();
+        BatchResponseDTO.Item[] results = new BatchResponseDTO.Item[items.size()];
+
+        if (batch.isTransactional()) {
+            try {
+                runTransactional(items, results, request, authentication);
+            } catch (UnexpectedRollbackException e) {
+                log.warn("batch: la transacción se revirtió al confirmar", e);
+                for (int i = 0; i < items.size(); i++) {
+                    results[i] = new BatchResponseDTO.Item(items.get(i).getId(), FAILED_DEPENDENCY, null);
+                }
+            }
+        } else {
+            int i = 0;
+            while (i < items.size()) {
+                int end = i + 1;
+                if (isRead(items.get(i))) {
+                    while (end < items.size() && isRead(items.get(end))) {
+                        end++;
+                    }
+                }
+                runReads(items, i, end, results, request, authentication);
+                i = end;
+            }
+        }
+        return new BatchResponseDTO(List.of(results));
+    }
+
+    private void runTransactional(List<BatchRequestDTO.Item> items, BatchResponseDTO.Item[] results,
+                                  HttpServletRequest request, Authentication authentication) {
+        transactionTemplate.executeWithoutResult(status -> {
+            boolean failed = false;
+            for (int i = 0; i < items.size(); i++) {
+                if (failed) {
+                    results[i] = new BatchResponseDTO.Item(items.get(i).getId(), FAILED_DEPENDENCY, null);
+                    continue;
+                }
+                results[i] = run(items.get(i), request, authentication);
+                if (results[i].getStatus() >= 400) {
+                    failed = true;
+                    status.setRollbackOnly();
+                }
+            }
+        });
+    }
+
+    // Resultado de una lectura en el pool, con lo que midió en su hilo
+    private record Measured(BatchResponseDTO.Item item, RequestMonitor.Usage usage) {
+    }
+
+    // Tramo [from, to): la primera corre en este hilo y el resto en el pool
+    private void runReads(List<BatchRequestDTO.Item> items, int from, int to, BatchResponseDTO.Item[] results,
+                          HttpServletRequest request, Authentication authentication) {
+        SecurityContext context = SecurityContextHolder.getContext();
+        List<Future<Measured>> futures = new ArrayList<>(to - from - 1);
+        for (int i = from + 1; i < to; i++) {
+            BatchRequestDTO.Item item = items.get(i);
+            futures.add(executor.submit(() -> {
+                SecurityContext previous = SecurityContextHolder.getContext();
+                SecurityContextHolder.setContext(context);
+                boolean measured = RequestMonitor.beginWorker();
+                RequestMonitor.Usage usage = null;
+                BatchResponseDTO.Item result;
+                try {
+                    result = run(item, request, authentication);
+                } finally {
+                    if (measured) {
+                        usage = RequestMonitor.endWorker();
+                    }
+                    SecurityContextHolder.setContext(previous);
+                }
+                return new Measured(result, usage);
+            }));
+        }
+
+        results[from] = run(items.get(from), request, authentication);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (int i = from + 1; i < to; i++) {
+            Future<Measured> future = futures.get(i - from - 1);
+            String id = items.get(i).getId();
+            try {
+                Measured measured = future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                RequestMonitor.add(measured.usage());
+                results[i] = measured.item();
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                results[i] = new BatchResponseDTO.Item(id, HttpStatus.GATEWAY_TIMEOUT.value(), null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                results[i] = new BatchResponseDTO.Item(id, HttpStatus.SERVICE_UNAVAILABLE.value(), null);
+            } catch (ExecutionException e) {
+                log.warn("batch: la sub-petición {} falló", id, e.getCause());
+                results[i] = new BatchResponseDTO.Item(id, HttpStatus.INTERNAL_SERVER_ERROR.value(), null);
+            }
+        }
+    }
+
+    BatchResponseDTO.Item run(BatchRequestDTO.Item item, HttpServletRequest request, Authentication authentication) {
+        String id = item.getId();
+        String method = method(item);
+        if (item.getPath() == null) {
+            return new BatchResponseDTO.Item(id, HttpStatus.BAD_REQUEST.value(), null);
+        }
+        UriComponents uri = UriComponentsBuilder.fromUriString(item.getPath()).build();
+        if (!METHODS.contains(method) || uri.getPath() == null || !SAFE_PATH.matcher(uri.getPath()).matches()) {
+            return new BatchResponseDTO.Item(id, HttpStatus.BAD_REQUEST.value(), null);
+        }
+        if (!privilegeEvaluator.isAllowed(request.getContextPath(), uri.getPath(), method, authentication)) {
+            return new BatchResponseDTO.Item(id, HttpStatus.FORBIDDEN.value(), null);
+        }
+        if (rateLimitFilter.tryConsume(authentication.getName(), uri.getPath()) > 0) {
+            return new BatchResponseDTO.Item(id, HttpStatus.TOO_MANY_REQUESTS.value(), null);
+        }
+
+        SubResponse response = new SubResponse();
+        try {
+            byte[] body = item.getBody() == null || item.getBody().isNull()
+                    ? new byte[0]
+                    : objectMapper.writeValueAsBytes(item.getBody());
+            dispatcherServlet.service(new SubRequest(request, method, uri, body, authentication), response);
+            return new BatchResponseDTO.Item(id, response.status(), body(response));
+        } catch (Exception e) {
+            log.warn("batch: la sub-petición {} {} falló", method, uri.getPath(), e);
+            return new BatchResponseDTO.Item(id, HttpStatus.INTERNAL_SERVER_ERROR.value(), null);
+        }
+    }
+
+    private static boolean isRead(BatchRequestDTO.Item item) {
+        return "GET".equals(method(item));
+    }
+
+    private static String method(BatchRequestDTO.Item item) {
+        return item.getMethod() == null ? "GET" : item.getMethod().toUpperCase(Locale.ROOT);
+    }
+
+    // JSON tal cual; cualquier otro contenido va como string JSON
+    private String body(SubResponse response) throws JsonProcessingException {
+        byte[] bytes = response.body();
+        if (bytes.length == 0) {
+            return null;
+        }
+        String text = new String(bytes, response.charset());
+        return response.isJson() ? text : objectMapper.writeValueAsString(text);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.TaskManager.Config;
+
+import com.example.TaskManager.DTO.ArchivedIdProjection;
+import com.example.TaskManager.DTO.BatchRequestDTO;
+import com.example.TaskManager.DTO.BatchResponseDTO;
+import com.example.TaskManager.DTO.DispatchCandidateProjection;
+import com.example.TaskManager.DTO.DispatchRequestDTO;
+import com.example.TaskManager.DTO.DispatchResultDTO;
+import com.example.TaskManager.DTO.DistanceBandDTO;
+import com.example.TaskManager.DTO.NearbyTaskPageDTO;
+import com.example.TaskManager.DTO.NearbyTaskProjection;
+import com.example.TaskManager.DTO.ReminderCandidateProjection;
+import com.example.TaskManager.DTO.RouteDTO;
+import com.example.TaskManager.DTO.SectorCountProjection;
+import com.example.TaskManager.DTO.SectorDTO;
+import com.example.TaskManager.DTO.SectorDistanceCountProjection;
+import com.example.TaskManager.DTO.TaskDTO;
+import com.example.TaskManager.DTO.TaskChangesDTO;
+import com.example.TaskManager.DTO.TaskPageDTO;
+import com.example.TaskManager.DTO.UserDTO;
+import com.example.TaskManager.DTO.UserSectorCountProjection;
+import com.example.TaskManager.Security.Payload.JwtResponse;
+import com.example.TaskManager.Security.Payload.LoginRequest;
+import com.example.TaskManager.Security.Payload.RegisterRequest;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Pistas para la imagen nativa (perfil Maven "native"): lo que se carga por reflexión o ServiceLoader
+ * y Spring AOT no puede deducir solo. Se registra con @ImportRuntimeHints en TaskManagerApplication.
+ * Se usan nombres de clase (no literales .class) porque jjwt-impl y parte de hibernate-spatial
+ * no están en el classpath de compilación.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    // Geometrías JTS que hibernate-spatial crea y lee al mapear columnas geometry/geography
+    static final List<String> JTS_TYPES = List.of(
+            "org.locationtech.jts.geom.Geometry",
+            "org.locationtech.jts.geom.Point",
+            "org.locationtech.jts.geom.Polygon",
+            "org.locationtech.jts.geom.LineString",
+            "org.locationtech.jts.geom.Coordinate",
+            "org.locationtech.jts.geom.GeometryFactory",
+            "org.locationtech.jts.geom.PrecisionModel",
+            "org.locationtech.jts.geom.impl.CoordinateArraySequence",
+            "org.locationtech.jts.geom.impl.CoordinateArraySequenceFactory",
+            "org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory"
+    );
+
+    // Contribuidores de hibernate-spatial (ServiceLoader) y tipos JDBC de PostGIS
+    static final List<String> SPATIAL_TYPES = List.of(
+            "org.hibernate.spatial.contributor.SpatialTypeContributor",
+            "org.hibernate.spatial.contributor.SpatialFunctionContributor",
+            "org.hibernate.spatial.dialect.postgis.PostgisDialectContributor",
+            "org.hibernate.spatial.dialect.postgis.PGGeometryJdbcType",
+            "org.hibernate.spatial.dialect.postgis.PGGeographyJdbcType"
+    );
+
+    // Implementaciones que jjwt-api instancia por nombre (Classes.newInstance / invokeStatic)
+    static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    // DTOs (Lombok) que Jackson serializa/deserializa en los controladores
+    static final List<Class<?>> DTO_TYPES = List.of(
+            TaskDTO.class, UserDTO.class, SectorDTO.class, RouteDTO.class,
+            NearbyTaskPageDTO.class, TaskPageDTO.class, TaskChangesDTO.class, DistanceBandDTO.class,
+            DispatchRequestDTO.class, DispatchResultDTO.class, DispatchResultDTO.Assignment.class,
+            BatchRequestDTO.class, BatchRequestDTO.Item.class, BatchResponseDTO.class, BatchResponseDTO.Item.class,
+            LoginRequest.class, RegisterRequest.class, JwtResponse.class
+    );
+
+    // Proyecciones de Spring Data devueltas por consultas nativas (se leen por reflexión al serializar)
+    static final List<Class<?>> PROJECTION_TYPES = List.of(
+            SectorCountProjection.class, SectorDistanceCountProjection.class, UserSectorCountProjection.class,
+            NearbyTaskProjection.class, DispatchCandidateProjection.class, ArchivedIdProjection.class,
+            ReminderCandidateProjection.class
+    );
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        MemberCategory[] all = {
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS,
+                MemberCategory.INVOKE_DECLARED_METHODS,
+                MemberCategory.DECLARED_FIELDS
+        };
+        for (String type : JTS_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type), all);
+        }
+        for (String type : SPATIAL_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type), all);
+        }
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type), all);
+        }
+
+        BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+        binding.registerReflectionHints(hints.reflection(), DTO_TYPES.toArray(Class<?>[]::new));
+        for (Class<?> projection : PROJECTION_TYPES) {
+            hints.reflection().registerType(projection, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        // Proxies JDK de StatementCountingDataSource
+        hints.proxies().registerJdkProxy(Connection.class);
+        hints.proxies().registerJdkProxy(Statement.class);
+        hints.proxies().registerJdkProxy(PreparedStatement.class);
+        hints.proxies().registerJdkProxy(CallableStatement.class);
+
+        hints.resources().registerPattern("META-INF/services/org.hibernate.*");
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+        // Driver R2DBC de /api/rx (ConnectionFactories lo busca por ServiceLoader)
+        hints.resources().registerPattern("META-INF/services/io.r2dbc.*");
+    }
+}
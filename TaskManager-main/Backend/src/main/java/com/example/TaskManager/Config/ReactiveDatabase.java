@@ -0,0 +1,52 @@
+package com.example.TaskManager.Config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Pool R2DBC para las lecturas reactivas de /api/rx, aparte del pool JDBC (Hikari) de JPA.
+ *
+ * El pool no se publica como bean ConnectionFactory a propósito: con un ConnectionFactory en el
+ * contexto Spring Boot deja de configurar el DataSource (y JPA). Por lo mismo R2dbcAutoConfiguration
+ * está excluida en TaskManagerApplication. El pool abre conexiones recién al primer uso.
+ */
+@Component
+public class ReactiveDatabase implements DisposableBean {
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+
+    public ReactiveDatabase(
+            @Value("${spring.r2dbc.url:r2dbc:postgresql://localhost:5432/control2_db}") String url,
+            @Value("${spring.r2dbc.username:postgres}") String username,
+            @Value("${spring.r2dbc.password:}") String password,
+            @Value("${spring.r2dbc.pool.max-size:20}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(0)
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMinutes(30))
+                .build());
+        this.client = DatabaseClient.create(pool);
+    }
+
+    public DatabaseClient client() {
+        return client;
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+}
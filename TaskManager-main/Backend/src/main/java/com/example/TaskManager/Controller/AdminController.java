@@ -1,20 +1,29 @@
 package com.example.TaskManager.Controller;
 
+import com.example.TaskManager.DTO.DispatchRequestDTO;
+import com.example.TaskManager.DTO.DispatchResultDTO;
 import com.example.TaskManager.DTO.TaskDTO;
 import com.example.TaskManager.DTO.UserDTO;
 import com.example.TaskManager.Entity.User;
 import com.example.TaskManager.Entity.Task;
+import com.example.TaskManager.Event.TaskChangedEvent;
 import com.example.TaskManager.Mapper.TaskMapper;
 import com.example.TaskManager.Repository.TaskRepository;
 import com.example.TaskManager.Repository.UserRepository;
 import com.example.TaskManager.Repository.SectorRepository;
+import com.example.TaskManager.Service.DispatchService;
 import com.example.TaskManager.Service.TaskService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -26,6 +35,8 @@ public class AdminController {
     private final TaskMapper taskMapper;
     private final SectorRepository sectorRepository;
     private final TaskService taskService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DispatchService dispatchService;
 
     @GetMapping("/users")
     public List<UserDTO> listUsers() {
@@ -45,7 +56,7 @@ public class AdminController {
 
     @GetMapping("/tasks")
     public List<TaskDTO> listTasks() {
-        return taskRepository.findAll().stream()
+        return taskRepository.findAllWithSector().stream()
                 .map(taskMapper::toDto)
                 .toList();
     }
@@ -58,10 +69,13 @@ public class AdminController {
     }
 
     @PutMapping("/tasks/{id}")
+    @Transactional
     public ResponseEntity<TaskDTO> updateTaskForUser(@PathVariable Long id, @RequestBody TaskDTO dto) {
         // El admin actualiza una tarea existente (puede reasignarla a otro usuario)
         Task task = taskRepository.findById(id)
                 .orElseGet(() -> new Task());
+        boolean isNew = task.getId() == null;
+        Long previousSectorId = TaskChangedEvent.sectorIdOf(task);
         
         // Actualizar campos
         task.setTitle(dto.getTitle());
@@ -83,6 +97,33 @@ public class AdminController {
         }
         
         Task saved = taskRepository.save(task);
+        eventPublisher.publishEvent(isNew
+                ? TaskChangedEvent.created(saved)
+                : TaskChangedEvent.updated(saved, previousSectorId));
         return ResponseEntity.ok(taskMapper.toDto(saved));
     }
-}
\ No newline at end of file
+
+    // POST /api/admin/tasks/bulk-delete  (body: [1, 2, 3])
+    @PostMapping("/tasks/bulk-delete")
+    public Map<String, Integer> bulkDeleteTasks(@RequestBody List<Long> ids) {
+        return Map.of("deleted", taskService.deleteAllById(ids));
+    }
+
+    // DELETE /api/admin/tasks/finished?before=2025-01-01 -> borra terminadas con fecha anterior
+    @DeleteMapping("/tasks/finished")
+    public Map<String, Integer> deleteFinishedBefore(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before) {
+        return Map.of("deleted", taskService.deleteFinishedBefore(before));
+    }
+
+    // POST /api/admin/dispatch  (body: {"taskIds": [1, 2]} o {"sectorId": 3}, opcional "maxPerUser")
+    // Reasigna cada tarea pendiente al usuario más cercano a su sector, con tope por usuario
+    @PostMapping("/dispatch")
+    public ResponseEntity<DispatchResultDTO> dispatch(@RequestBody DispatchRequestDTO request) {
+        try {
+            return ResponseEntity.ok(dispatchService.dispatch(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.TaskManager.Controller;
+
+import com.example.TaskManager.Batch.BatchDispatcher;
+import com.example.TaskManager.DTO.BatchRequestDTO;
+import com.example.TaskManager.DTO.BatchResponseDTO;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchDispatcher batchDispatcher;
+
+    // POST /api/batch  {"transactional": false, "requests": [{"id": "1", "method": "PATCH", "path": "/api/tasks/5/toggle"},
+    //                   {"id": "2", "path": "/api/tasks?userId=1"}, {"id": "3", "path": "/api/stats/pending-by-sector"}]}
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponseDTO> batch(@RequestBody BatchRequestDTO batch,
+                                                  HttpServletRequest request,
+                                                  Authentication authentication) {
+        if (batch.getRequests() == null || batch.getRequests().isEmpty()
+                || batch.getRequests().size() > batchDispatcher.maxRequests()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(batchDispatcher.execute(batch, request, authentication));
+    }
+}
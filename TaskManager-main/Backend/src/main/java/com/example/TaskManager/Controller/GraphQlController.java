@@ -0,0 +1,187 @@
+package com.example.TaskManager.Controller;
+
+import com.example.TaskManager.DTO.DistanceBandDTO;
+import com.example.TaskManager.DTO.SectorCountProjection;
+import com.example.TaskManager.DTO.SectorDTO;
+import com.example.TaskManager.DTO.TaskDTO;
+import com.example.TaskManager.DTO.UserDTO;
+import com.example.TaskManager.DTO.UserSectorCountProjection;
+import com.example.TaskManager.Entity.Sector;
+import com.example.TaskManager.Entity.User;
+import com.example.TaskManager.Repository.SectorRepository;
+import com.example.TaskManager.Repository.UserRepository;
+import com.example.TaskManager.Service.StatisticsService;
+import com.example.TaskManager.Service.TaskService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolvers de /graphql (esquema en resources/graphql/schema.graphqls) sobre los mismos servicios que la API REST.
+ *
+ * Las tareas se resuelven como TaskDTO (ya traen sectorId y userId). Task.sector y Task.owner son @BatchMapping:
+ * Spring GraphQL arma un DataLoader por petición y junta todas las tareas del resultado en una sola llamada,
+ * así 500 tareas con sector y dueño son tres consultas (tareas, sectores, usuarios) en vez de 1 + 2N.
+ */
+@Controller
+@RequiredArgsConstructor
+public class GraphQlController {
+
+    // Mismo tope que StatisticsController
+    private static final int MAX_BANDS = 20;
+
+    public enum TaskFilter { ALL, FINISHED, UNFINISHED, IMPORTANT }
+
+    // Raíz de Query.stats: los campos de UserStats se calculan solo si la consulta los pide
+    public record UserStats(Long userId) {
+    }
+
+    private final TaskService taskService;
+    private final StatisticsService statisticsService;
+    private final SectorRepository sectorRepository;
+    private final UserRepository userRepository;
+
+    @QueryMapping
+    public UserDTO me(Authentication authentication) {
+        if (authentication == null || authentication.getName() == null) {
+            return null;
+        }
+        return userRepository.findByUsername(authentication.getName()).map(GraphQlController::toDto).orElse(null);
+    }
+
+    @QueryMapping
+    public TaskDTO task(@Argument Long id) {
+        return taskService.findById(id).getBody();
+    }
+
+    @QueryMapping
+    public List<TaskDTO> tasks(@Argument Long userId, @Argument TaskFilter filter) {
+        return switch (filter == null ? TaskFilter.ALL : filter) {
+            case ALL -> taskService.findByUserId(userId);
+            case FINISHED -> taskService.findByFinished(userId);
+            case UNFINISHED -> taskService.findByUnfinished(userId);
+            case IMPORTANT -> taskService.findByImportant(userId);
+        };
+    }
+
+    @QueryMapping
+    public List<SectorDTO> sectors() {
+        return sectorRepository.findAll().stream().map(GraphQlController::toDto).toList();
+    }
+
+    @QueryMapping
+    public UserStats stats(@Argument Long userId) {
+        return new UserStats(userId);
+    }
+
+    @QueryMapping
+    public List<SectorCountProjection> pendingBySector() {
+        return statisticsService.pendingTasksBySector();
+    }
+
+    @QueryMapping
+    public List<UserSectorCountProjection> completedByUserAndSector() {
+        return statisticsService.completedTasksByUserAndSector();
+    }
+
+    // Un solo findAllById por petición para los sectores de todas las tareas
+    @BatchMapping(typeName = "Task")
+    public Map<TaskDTO, SectorDTO> sector(List<TaskDTO> tasks) {
+        List<Long> ids = distinct(tasks, TaskDTO::getSectorId);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, SectorDTO> sectors = sectorRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Sector::getId, GraphQlController::toDto));
+        return byTask(tasks, TaskDTO::getSectorId, sectors);
+    }
+
+    // Un solo findAllById por petición para los dueños de todas las tareas
+    @BatchMapping(typeName = "Task")
+    public Map<TaskDTO, UserDTO> owner(List<TaskDTO> tasks) {
+        List<Long> ids = distinct(tasks, TaskDTO::getUserId);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, UserDTO> users = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, GraphQlController::toDto));
+        return byTask(tasks, TaskDTO::getUserId, users);
+    }
+
+    @SchemaMapping(typeName = "UserStats")
+    public List<SectorCountProjection> tasksPerSector(UserStats stats) {
+        return statisticsService.countCompletedBySectorForUser(stats.userId());
+    }
+
+    @SchemaMapping(typeName = "UserStats")
+    public TaskDTO nearestPending(UserStats stats) {
+        return statisticsService.nearestPendingTaskForUser(stats.userId());
+    }
+
+    @SchemaMapping(typeName = "UserStats")
+    public SectorCountProjection topSector(UserStats stats, @Argument Double radiusMeters) {
+        return statisticsService.topCompletedSectorNearUser(stats.userId(), radiusMeters);
+    }
+
+    @SchemaMapping(typeName = "UserStats")
+    public Double avgDistanceCompleted(UserStats stats) {
+        return statisticsService.avgDistanceCompletedTasksForUser(stats.userId());
+    }
+
+    @SchemaMapping(typeName = "UserStats")
+    public List<DistanceBandDTO> completedByDistanceBand(UserStats stats, @Argument List<Double> bands) {
+        if (bands.isEmpty() || bands.size() > MAX_BANDS || bands.stream().anyMatch(b -> b == null || b <= 0)) {
+            throw new IllegalArgumentException("bands: entre 1 y " + MAX_BANDS + " radios positivos");
+        }
+        return statisticsService.completedByDistanceBand(stats.userId(), bands);
+    }
+
+    private static List<Long> distinct(List<TaskDTO> tasks, Function<TaskDTO, Long> id) {
+        return tasks.stream().map(id).filter(Objects::nonNull).distinct().toList();
+    }
+
+    // Tareas sin sector (o con el id ya borrado) quedan fuera del mapa y el campo sale null
+    private static <T> Map<TaskDTO, T> byTask(List<TaskDTO> tasks, Function<TaskDTO, Long> id, Map<Long, T> byId) {
+        Map<TaskDTO, T> result = new HashMap<>();
+        for (TaskDTO task : tasks) {
+            T value = byId.get(id.apply(task));
+            if (value != null) {
+                result.put(task, value);
+            }
+        }
+        return result;
+    }
+
+    private static SectorDTO toDto(Sector sector) {
+        return SectorDTO.builder()
+                .id(sector.getId())
+                .name(sector.getName())
+                .latitude(sector.getLocation() != null ? sector.getLocation().getY() : null)
+                .longitude(sector.getLocation() != null ? sector.getLocation().getX() : null)
+                .build();
+    }
+
+    private static UserDTO toDto(User user) {
+        return UserDTO.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .firstname(user.getFirstname())
+                .lastname(user.getLastname())
+                .role(user.getRole() != null ? user.getRole().name() : null)
+                .address(user.getAddress())
+                .latitude(user.getLatitude())
+                .longitude(user.getLongitude())
+                .build();
+    }
+}
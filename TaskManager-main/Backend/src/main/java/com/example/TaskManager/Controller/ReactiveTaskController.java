@@ -0,0 +1,100 @@
+package com.example.TaskManager.Controller;
+
+import com.example.TaskManager.DTO.DistanceBandDTO;
+import com.example.TaskManager.DTO.SectorCountProjection;
+import com.example.TaskManager.DTO.TaskDTO;
+import com.example.TaskManager.DTO.UserSectorCountProjection;
+import com.example.TaskManager.Service.ReactiveStatisticsReader;
+import com.example.TaskManager.Service.ReactiveTaskReader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Lecturas de tareas y estadísticas sobre R2DBC, en paralelo a /api/tasks y /api/stats (mismos parámetros y JSON).
+ *
+ * Devuelven Flux/Mono: Spring MVC atiende la respuesta en modo asíncrono y el hilo de Tomcat queda libre
+ * mientras se espera a la base. Con Accept: application/x-ndjson las listas salen tarea por tarea con
+ * backpressure hasta el cursor del driver; con application/json se juntan en un arreglo como en /api/tasks.
+ */
+@RestController
+@RequestMapping("/api/rx")
+@RequiredArgsConstructor
+public class ReactiveTaskController {
+
+    // Mismo tope que StatisticsController
+    private static final int MAX_BANDS = 20;
+
+    private final ReactiveTaskReader taskReader;
+    private final ReactiveStatisticsReader statisticsReader;
+
+    @GetMapping(value = "/tasks", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<TaskDTO> getTasksByUser(@RequestParam Long userId) {
+        return taskReader.findByUser(userId, ReactiveTaskReader.Filter.ALL);
+    }
+
+    @GetMapping(value = "/tasks/finished", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<TaskDTO> getFinished(@RequestParam Long userId) {
+        return taskReader.findByUser(userId, ReactiveTaskReader.Filter.FINISHED);
+    }
+
+    @GetMapping(value = "/tasks/unfinished", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<TaskDTO> getUnfinished(@RequestParam Long userId) {
+        return taskReader.findByUser(userId, ReactiveTaskReader.Filter.UNFINISHED);
+    }
+
+    @GetMapping(value = "/tasks/important", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<TaskDTO> getImportant(@RequestParam Long userId) {
+        return taskReader.findByUser(userId, ReactiveTaskReader.Filter.IMPORTANT);
+    }
+
+    @GetMapping("/stats/user/{userId}/tasks-per-sector")
+    public Flux<SectorCountProjection> tasksPerSector(@PathVariable Long userId) {
+        return statisticsReader.countCompletedBySectorForUser(userId);
+    }
+
+    @GetMapping("/stats/user/{userId}/nearest-pending")
+    public Mono<TaskDTO> nearestPending(@PathVariable Long userId) {
+        return statisticsReader.nearestPendingTaskForUser(userId);
+    }
+
+    @GetMapping("/stats/user/{userId}/top-sector-2km")
+    public Mono<SectorCountProjection> topSector2km(@PathVariable Long userId) {
+        return statisticsReader.topCompletedSectorNearUser(userId, 2000);
+    }
+
+    @GetMapping("/stats/user/{userId}/top-sector-5km")
+    public Mono<SectorCountProjection> topSector5km(@PathVariable Long userId) {
+        return statisticsReader.topCompletedSectorNearUser(userId, 5000);
+    }
+
+    @GetMapping("/stats/user/{userId}/avg-distance-completed")
+    public Mono<Double> avgDistance(@PathVariable Long userId) {
+        return statisticsReader.avgDistanceCompletedTasksForUser(userId);
+    }
+
+    @GetMapping("/stats/user/{userId}/completed-by-distance-band")
+    public Mono<ResponseEntity<List<DistanceBandDTO>>> completedByDistanceBand(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "1000,2000,5000,10000,25000") List<Double> bands) {
+        if (bands.isEmpty() || bands.size() > MAX_BANDS || bands.stream().anyMatch(b -> b == null || b <= 0)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return statisticsReader.completedByDistanceBand(userId, bands).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/stats/pending-by-sector")
+    public Flux<SectorCountProjection> pendingBySector() {
+        return statisticsReader.pendingTasksBySector();
+    }
+
+    @GetMapping("/stats/completed-by-user-and-sector")
+    public Flux<UserSectorCountProjection> completedByUserAndSector() {
+        return statisticsReader.completedTasksByUserAndSector();
+    }
+}
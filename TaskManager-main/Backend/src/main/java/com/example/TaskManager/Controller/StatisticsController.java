@@ -1,12 +1,12 @@
 package com.example.TaskManager.Controller;
 
+import com.example.TaskManager.DTO.DistanceBandDTO;
 import com.example.TaskManager.DTO.SectorCountProjection;
 import com.example.TaskManager.DTO.TaskDTO;
 import com.example.TaskManager.DTO.UserSectorCountProjection;
-import com.example.TaskManager.Entity.Task;
-import com.example.TaskManager.Mapper.TaskMapper;
-import com.example.TaskManager.Repository.TaskRepository;
+import com.example.TaskManager.Service.StatisticsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -16,43 +16,55 @@ import java.util.List;
 @RequiredArgsConstructor
 public class StatisticsController {
 
-    private final TaskRepository taskRepository;
-    private final TaskMapper taskMapper;
+    // Tope de bandas por consulta (cada una arrastra su propio ranking de sectores)
+    private static final int MAX_BANDS = 20;
+
+    private final StatisticsService statisticsService;
 
     @GetMapping("/user/{userId}/tasks-per-sector")
     public List<SectorCountProjection> tasksPerSector(@PathVariable Long userId) {
-        return taskRepository.countCompletedBySectorForUser(userId);
+        return statisticsService.countCompletedBySectorForUser(userId);
     }
 
     @GetMapping("/user/{userId}/nearest-pending")
     public TaskDTO nearestPending(@PathVariable Long userId) {
-        Task task = taskRepository.findNearestPendingTaskForUser(userId);
-        // Convertimos a DTO para evitar errores de JSON y que el frontend lo lea bien
-        return taskMapper.toDto(task);
+        // El servicio ya devuelve DTO para evitar errores de JSON y que el frontend lo lea bien
+        return statisticsService.nearestPendingTaskForUser(userId);
     }
 
     @GetMapping("/user/{userId}/top-sector-2km")
     public SectorCountProjection topSector2km(@PathVariable Long userId) {
-        return taskRepository.topCompletedSectorNearUser(userId, 2000);
+        return statisticsService.topCompletedSectorNearUser(userId, 2000);
     }
 
     @GetMapping("/user/{userId}/top-sector-5km")
     public SectorCountProjection topSector5km(@PathVariable Long userId) {
-        return taskRepository.topCompletedSectorNearUser(userId, 5000);
+        return statisticsService.topCompletedSectorNearUser(userId, 5000);
     }
 
     @GetMapping("/user/{userId}/avg-distance-completed")
     public Double avgDistance(@PathVariable Long userId) {
-        return taskRepository.avgDistanceCompletedTasksForUser(userId);
+        return statisticsService.avgDistanceCompletedTasksForUser(userId);
+    }
+
+    // GET /user/1/completed-by-distance-band?bands=1000,2000,5000,10000,25000
+    @GetMapping("/user/{userId}/completed-by-distance-band")
+    public ResponseEntity<List<DistanceBandDTO>> completedByDistanceBand(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "1000,2000,5000,10000,25000") List<Double> bands) {
+        if (bands.isEmpty() || bands.size() > MAX_BANDS || bands.stream().anyMatch(b -> b == null || b <= 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(statisticsService.completedByDistanceBand(userId, bands));
     }
 
     @GetMapping("/pending-by-sector")
     public List<SectorCountProjection> pendingBySector() {
-        return taskRepository.pendingTasksBySector();
+        return statisticsService.pendingTasksBySector();
     }
 
     @GetMapping("/completed-by-user-and-sector")
     public List<UserSectorCountProjection> completedByUserAndSector() {
-        return taskRepository.completedTasksByUserAndSector();
+        return statisticsService.completedTasksByUserAndSector();
     }
-}
\ No newline at end of file
+}
@@ -1,19 +1,29 @@
 package com.example.TaskManager.Controller;
 
+import com.example.TaskManager.DTO.NearbyTaskPageDTO;
+import com.example.TaskManager.DTO.RouteDTO;
+import com.example.TaskManager.DTO.TaskChangesDTO;
 import com.example.TaskManager.DTO.TaskDTO;
+import com.example.TaskManager.DTO.TaskPageDTO;
 import com.example.TaskManager.Entity.Sector;
 import com.example.TaskManager.Entity.Task;
 import com.example.TaskManager.Entity.User;
+import com.example.TaskManager.Event.TaskChangedEvent;
 import com.example.TaskManager.Mapper.TaskMapper;
 import com.example.TaskManager.Repository.SectorRepository;
 import com.example.TaskManager.Repository.TaskRepository;
 import com.example.TaskManager.Repository.UserRepository;
+import com.example.TaskManager.Service.RouteService;
+import com.example.TaskManager.Service.TaskArchiveService;
 import com.example.TaskManager.Service.TaskService;
+import com.example.TaskManager.Service.TaskSyncService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -23,6 +33,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TaskController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final TaskService taskService;
     private final TaskRepository taskRepository;
 
@@ -30,6 +42,10 @@ public class TaskController {
     private final UserRepository userRepository;
     private final SectorRepository sectorRepository;
     private final TaskMapper taskMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RouteService routeService;
+    private final TaskArchiveService taskArchiveService;
+    private final TaskSyncService taskSyncService;
 
     // GET /tasks?userId=1  -> lista de tareas del usuario
     @GetMapping("/tasks")
@@ -52,6 +68,7 @@ public class TaskController {
      * - Si el que edita ES admin: puede reasignar userId y sectorId
      */
     @PutMapping("/tasks/{id}")
+    @Transactional
     public ResponseEntity<TaskDTO> updateTaskById(
             @PathVariable Long id,
             @RequestBody TaskDTO dto,
@@ -63,6 +80,7 @@ public class TaskController {
         }
 
         Task task = opt.get();
+        Long previousSectorId = TaskChangedEvent.sectorIdOf(task);
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || auth.getName() == null) {
@@ -120,6 +138,7 @@ public class TaskController {
         }
 
         Task saved = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(saved, previousSectorId));
         return ResponseEntity.ok(taskMapper.toDto(saved));
     }
 
@@ -130,7 +149,61 @@ public class TaskController {
 
     @DeleteMapping("/tasks/{id}")
     public ResponseEntity<TaskDTO> deleteTask(@PathVariable Long id, @RequestParam(required = false) Long userId) {
-        return taskService.deleteById(id);
+        // Si viene userId, el DELETE solo afecta tareas de ese usuario
+        return taskService.deleteById(id, userId);
+    }
+
+    // GET /tasks/near?lat=-33.44&lon=-70.65&radius=2000&finished=false&limit=50&cursor=...
+    @GetMapping("/tasks/near")
+    public ResponseEntity<NearbyTaskPageDTO> getNear(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam double radius,
+            @RequestParam(defaultValue = "false") boolean finished,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor) {
+        if (radius <= 0 || limit <= 0 || limit > MAX_PAGE_SIZE
+                || lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(taskService.findNear(lat, lon, radius, finished, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            // Cursor mal formado
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // GET /tasks/route?userId=1 -> pendientes del usuario en orden de visita desde su ubicación
+    @GetMapping("/tasks/route")
+    public ResponseEntity<RouteDTO> getRoute(@RequestParam Long userId) {
+        return routeService.routeForUser(userId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    // GET /tasks/archive?userId=1&limit=50&cursor=... -> historial de terminadas ya archivadas
+    @GetMapping("/tasks/archive")
+    public ResponseEntity<TaskPageDTO> getArchived(
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(taskArchiveService.findArchived(userId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // GET /tasks/changes?userId=1&since=... -> creadas, modificadas y borradas desde la versión since
+    // (sin since, o con una ya purgada, devuelve la lista completa con full = true)
+    @GetMapping("/tasks/changes")
+    public ResponseEntity<TaskChangesDTO> getChanges(@RequestParam Long userId,
+                                                     @RequestParam(required = false) Long since) {
+        return ResponseEntity.ok(taskSyncService.findChangesSince(userId, since));
     }
 
     @GetMapping("/tasks/{id}")
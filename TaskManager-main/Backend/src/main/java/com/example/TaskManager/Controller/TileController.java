@@ -0,0 +1,36 @@
+package com.example.TaskManager.Controller;
+
+import com.example.TaskManager.Service.TileService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/tiles")
+@RequiredArgsConstructor
+public class TileController {
+
+    private static final MediaType MVT = MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+
+    private final TileService tileService;
+
+    // GET /api/tiles/14/4823/9852.mvt -> capa "sectors" con id, name, pending y finished por sector
+    @GetMapping("/{z}/{x}/{y}.mvt")
+    public ResponseEntity<byte[]> getTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+        int n = 1 << Math.min(Math.max(z, 0), TileService.MAX_ZOOM);
+        if (z < 0 || z > TileService.MAX_ZOOM || x < 0 || x >= n || y < 0 || y >= n) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        byte[] tile = tileService.getTile(z, x, y);
+        if (tile.length == 0) {
+            // Tile vacío: sin sectores en esa zona
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok().contentType(MVT).body(tile);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.TaskManager.DTO;
+
+// Tarea recién movida a task_archive (id y sector, para el keyset y para avisar el cambio)
+public interface ArchivedIdProjection {
+    Long getId();
+    Long getSectorId();
+}
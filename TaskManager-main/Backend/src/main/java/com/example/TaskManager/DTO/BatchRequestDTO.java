@@ -0,0 +1,30 @@
+package com.example.TaskManager.DTO;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Sub-peticiones de POST /api/batch, en orden. transactional = todas en una transacción (en serie, todo o nada)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequestDTO {
+    private boolean transactional;
+    private List<Item> requests;
+
+    // path incluye la query (ej: /api/tasks?userId=1); body es el JSON que iría en la petición suelta
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Item {
+        private String id;
+        private String method;
+        private String path;
+        private JsonNode body;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.TaskManager.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Respuestas de POST /api/batch en el mismo orden que las sub-peticiones
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponseDTO {
+    private List<Item> responses;
+
+    // body va tal cual lo escribió el controlador (JSON), sin volver a parsearlo
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Item {
+        private String id;
+        private int status;
+        @JsonRawValue
+        private String body;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.TaskManager.DTO;
+
+// Par (tarea pendiente, usuario cercano) con la distancia en metros desde el usuario al sector de la tarea
+public interface DispatchCandidateProjection {
+    Long getTaskId();
+    Long getSectorId();
+    Long getCurrentUserId();
+    Long getUserId();
+    Double getMeters();
+}
@@ -0,0 +1,19 @@
+package com.example.TaskManager.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Tareas a repartir: taskIds explícitos o todas las pendientes de sectorId. maxPerUser es el tope por usuario.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchRequestDTO {
+    private List<Long> taskIds;
+    private Long sectorId;
+    private Integer maxPerUser;
+}
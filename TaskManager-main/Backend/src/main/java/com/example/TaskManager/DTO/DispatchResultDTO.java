@@ -0,0 +1,28 @@
+package com.example.TaskManager.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Resumen del reparto: a quién quedó cada tarea, cuántas cambiaron de dueño y cuáles no se pudieron asignar
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchResultDTO {
+    private List<Assignment> assignments;
+    private int reassigned;
+    private List<Long> unassigned;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Assignment {
+        private Long taskId;
+        private Long userId;
+        private Double meters;
+    }
+}
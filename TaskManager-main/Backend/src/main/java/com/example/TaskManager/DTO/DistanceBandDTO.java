@@ -0,0 +1,19 @@
+package com.example.TaskManager.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Tareas completadas dentro de un radio: total y ranking de sectores (mayor a menor)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistanceBandDTO {
+    private Double radiusMeters;
+    private Long total;
+    private List<SectorDistanceCountProjection> sectors;
+}
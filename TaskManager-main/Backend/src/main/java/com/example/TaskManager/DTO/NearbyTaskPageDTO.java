@@ -0,0 +1,18 @@
+package com.example.TaskManager.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Página de tareas cercanas ordenadas por distancia. nextCursor es null en la última página.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyTaskPageDTO {
+    private List<NearbyTaskProjection> tasks;
+    private String nextCursor;
+}
@@ -0,0 +1,17 @@
+package com.example.TaskManager.DTO;
+
+import java.time.LocalDate;
+
+// Tarea con la distancia (en metros) desde el punto consultado hasta su sector
+public interface NearbyTaskProjection {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    LocalDate getDueDate();
+    Boolean getFinished();
+    Boolean getImportant();
+    Long getUserId();
+    Long getSectorId();
+    String getSectorName();
+    Double getDistance();
+}
@@ -0,0 +1,12 @@
+package com.example.TaskManager.DTO;
+
+import java.time.LocalDate;
+
+// Tarea pendiente con fecha de vencimiento, para programar su recordatorio
+public interface ReminderCandidateProjection {
+    Long getId();
+    Long getUserId();
+    String getTitle();
+    LocalDate getDueDate();
+    Boolean getFinished();
+}
@@ -0,0 +1,18 @@
+package com.example.TaskManager.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Tareas pendientes en orden de visita y largo aproximado del recorrido (en metros)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteDTO {
+    private List<TaskDTO> tasks;
+    private Double totalMeters;
+}
@@ -0,0 +1,5 @@
+package com.example.TaskManager.DTO;
+
+public interface SectorDistanceCountProjection extends SectorCountProjection {
+    Double getMeters();
+}
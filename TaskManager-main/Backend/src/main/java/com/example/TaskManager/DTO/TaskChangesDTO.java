@@ -0,0 +1,21 @@
+package com.example.TaskManager.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Cambios de tareas desde una versión. El cliente aplica primero deleted y luego changed, y guarda version
+// como el próximo since. Con full = true, changed es la lista completa y reemplaza la copia local.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangesDTO {
+    private Long version;
+    private boolean full;
+    private List<TaskDTO> changed;
+    private List<Long> deleted;
+}
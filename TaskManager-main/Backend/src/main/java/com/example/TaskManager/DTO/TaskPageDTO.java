@@ -0,0 +1,18 @@
+package com.example.TaskManager.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Página de tareas con cursor para la siguiente. nextCursor es null en la última página.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPageDTO {
+    private List<TaskDTO> tasks;
+    private String nextCursor;
+}
@@ -2,6 +2,8 @@ package com.example.TaskManager.Entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.locationtech.jts.geom.Point;
 
 @Entity
@@ -24,4 +26,10 @@ public class Sector {
     // Punto geoespacial del sector
     @Column(name = "location", columnDefinition = "geometry(Point,4326)")
     private Point location;
+
+    // Misma ubicación como geography, columna generada por la BD e indexada con GiST
+    @JdbcTypeCode(SqlTypes.GEOGRAPHY)
+    @Column(name = "geog", insertable = false, updatable = false,
+            columnDefinition = "geography(Point,4326) GENERATED ALWAYS AS (CAST(location AS geography)) STORED")
+    private Point geog;
 }
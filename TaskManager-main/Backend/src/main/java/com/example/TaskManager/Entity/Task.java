@@ -30,6 +30,7 @@ public class Task {
     @Column(name = "due_date", nullable = false)
     private LocalDate dueDate;
 
+    // Clave de partición de la tabla (task_pending / task_finished); cambiarla mueve la fila de partición
     @Default
     @Column(nullable = false)
     private boolean finished = false;
@@ -47,6 +48,11 @@ public class Task {
     @JsonIgnore
     private User user;
 
+    // Versión de cambio (xid de la última transacción que la tocó): la asigna la base (default y trigger
+    // task_bump_version), Hibernate solo la lee. La usa GET /api/tasks/changes
+    @Column(name = "change_version", insertable = false, updatable = false)
+    private Long changeVersion;
+
     // Custom method to support tests calling builder().date(null)
     public static class TaskBuilder {
         public TaskBuilder date(java.util.Date date) {
@@ -0,0 +1,45 @@
+package com.example.TaskManager.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Tarea terminada que TaskArchiveService sacó de task por antigüedad.
+ * Guarda los ids de usuario y sector tal cual (sin relaciones): es solo historial de lectura.
+ */
+@Entity
+@Table(name = "task_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskArchive {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String title;
+
+    @Column(length = 500)
+    private String description;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    @Column(nullable = false)
+    private boolean important;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "sector_id")
+    private Long sectorId;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+}
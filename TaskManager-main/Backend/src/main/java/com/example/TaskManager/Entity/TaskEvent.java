@@ -0,0 +1,52 @@
+package com.example.TaskManager.Entity;
+
+import com.example.TaskManager.Event.TaskChangedEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+// Outbox de cambios de tareas: se escribe en la misma transacción que el cambio y lo consume TaskEventConsumer
+@Entity
+@Table(name = "task_event")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TaskChangedEvent.ChangeType type;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "task_ids", nullable = false, columnDefinition = "bigint[]")
+    private Long[] taskIds;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "sector_ids", nullable = false, columnDefinition = "bigint[]")
+    private Long[] sectorIds;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public static TaskEvent of(TaskChangedEvent event) {
+        return TaskEvent.builder()
+                .type(event.type())
+                .taskIds(event.taskIds().toArray(Long[]::new))
+                .sectorIds(event.sectorIds().toArray(Long[]::new))
+                .createdAt(Instant.now())
+                .build();
+    }
+}
@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.locationtech.jts.geom.Point;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -55,6 +57,14 @@ public class User implements UserDetails {
     @Column(name = "location", columnDefinition = "geometry(Point,4326)")
     private Point location;
 
+    // Copia de location como geography, generada por la BD (con su propio índice GiST).
+    // Las consultas nativas la usan directo en vez de hacer CAST(location AS geography).
+    @JsonIgnore
+    @JdbcTypeCode(SqlTypes.GEOGRAPHY)
+    @Column(name = "geog", insertable = false, updatable = false,
+            columnDefinition = "geography(Point,4326) GENERATED ALWAYS AS (CAST(location AS geography)) STORED")
+    private Point geog;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     private List<Task> tasks;
 
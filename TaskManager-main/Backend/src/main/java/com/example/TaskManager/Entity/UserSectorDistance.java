@@ -0,0 +1,31 @@
+package com.example.TaskManager.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Distancia geodésica precalculada (en metros) entre la ubicación de un usuario y un sector.
+ * Se recalcula solo cuando cambia la ubicación del usuario o del sector, así las estadísticas
+ * por radio y de distancia promedio no hacen ST_Distance por cada tarea.
+ */
+@Entity
+@Table(name = "user_sector_distance")
+@IdClass(UserSectorDistanceId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSectorDistance {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "sector_id")
+    private Long sectorId;
+
+    @Column(name = "meters", nullable = false)
+    private double meters;
+}
@@ -0,0 +1,16 @@
+package com.example.TaskManager.Entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Clave compuesta de UserSectorDistance
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSectorDistanceId implements Serializable {
+    private Long userId;
+    private Long sectorId;
+}
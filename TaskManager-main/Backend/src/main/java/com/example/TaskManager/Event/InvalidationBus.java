@@ -0,0 +1,225 @@
+package com.example.TaskManager.Event;
+
+import com.example.TaskManager.Entity.TaskEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Invalidación de cachés entre nodos con LISTEN/NOTIFY de PostgreSQL.
+ *
+ * Publicar: NOTIFY en el canal cache_invalidation con "nodo|entidad|id,id,...". Si se llama dentro
+ * de una transacción, PostgreSQL entrega el aviso solo al hacer commit (y nunca si hay rollback).
+ * Escuchar: cada nodo mantiene una conexión propia (fuera del pool) con LISTEN y reparte los avisos
+ * a los InvalidationListener. Los avisos del propio nodo se ignoran: sus cachés ya se actualizan con
+ * los eventos locales (p. ej. TileService.onTaskChanged).
+ * Los cambios de tareas no se publican en la petición: llegan en lotes desde el outbox (handle).
+ */
+@Slf4j
+@Component
+public class InvalidationBus implements SmartLifecycle, TaskEventHandler {
+
+    static final String CHANNEL = "cache_invalidation";
+    // El payload de NOTIFY debe medir menos de 8000 bytes: se manda en varios avisos si hace falta
+    static final int MAX_PAYLOAD_BYTES = 7_999;
+    private static final long POLL_TIMEOUT_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectProvider<InvalidationListener> listeners;
+    private final boolean enabled;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public InvalidationBus(JdbcTemplate jdbcTemplate,
+                           DataSourceProperties dataSourceProperties,
+                           ObjectProvider<InvalidationListener> listeners,
+                           @Value("${invalidation.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.listeners = listeners;
+        this.enabled = enabled;
+    }
+
+    // Cambios de tareas, leídos del outbox (TaskEventConsumer): un aviso por entidad y lote, fuera del camino
+    // de la petición. El NOTIFY sale con el commit del lote. Las cachés de este nodo se avisan directo porque
+    // dispatch ignora los avisos propios y el lote pudo escribirlo otro nodo (en el nodo de origen es redundante).
+    @Override
+    public void handle(List<TaskEvent> events) {
+        Set<Long> sectorIds = new HashSet<>();
+        Set<Long> taskIds = new HashSet<>();
+        for (TaskEvent event : events) {
+            sectorIds.addAll(Arrays.asList(event.getSectorIds()));
+            taskIds.addAll(Arrays.asList(event.getTaskIds()));
+        }
+        publishAndApply("sector", sectorIds);
+        publishAndApply("task", taskIds);
+    }
+
+    private void publishAndApply(String entity, Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        publish(entity, ids);
+        Set<Long> copy = Set.copyOf(ids);
+        listeners.forEach(listener -> listener.onInvalidate(entity, copy));
+    }
+
+    public void publish(String entity, Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        for (String payload : encode(nodeId, entity, ids)) {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, CHANNEL, payload);
+        }
+    }
+
+    // Corta por largo del payload (no por cantidad de ids): un id de 19 dígitos ocupa 20 bytes con la coma
+    static List<String> encode(String nodeId, String entity, Collection<Long> ids) {
+        String prefix = nodeId + "|" + entity + "|";
+        int prefixBytes = prefix.getBytes(StandardCharsets.UTF_8).length;
+        List<String> payloads = new ArrayList<>();
+        StringBuilder joined = new StringBuilder();
+        for (Long id : ids) {
+            // Los ids son ASCII: un byte por carácter
+            String value = String.valueOf(id);
+            if (!joined.isEmpty() && prefixBytes + joined.length() + 1 + value.length() > MAX_PAYLOAD_BYTES) {
+                payloads.add(prefix + joined);
+                joined.setLength(0);
+            }
+            if (!joined.isEmpty()) {
+                joined.append(',');
+            }
+            joined.append(value);
+        }
+        if (!joined.isEmpty()) {
+            payloads.add(prefix + joined);
+        }
+        return payloads;
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    // Reparte un aviso recibido; false si es del propio nodo o viene mal formado
+    boolean dispatch(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return false;
+        }
+        Set<Long> ids;
+        try {
+            ids = Arrays.stream(parts[2].split(","))
+                    .filter(s -> !s.isBlank())
+                    .map(Long::valueOf)
+                    .collect(Collectors.toSet());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        listeners.forEach(listener -> listener.onInvalidate(parts[1], ids));
+        return true;
+    }
+
+    private void listenLoop() {
+        long backoff = POLL_TIMEOUT_MS;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement st = connection.createStatement()) {
+                    st.execute("LISTEN " + CHANNEL);
+                }
+                // Al reconectar pudimos perder avisos mientras no escuchábamos
+                if (connectedBefore) {
+                    listeners.forEach(InvalidationListener::onInvalidateAll);
+                }
+                connectedBefore = true;
+                backoff = POLL_TIMEOUT_MS;
+
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications((int) POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification n : notifications) {
+                            dispatchSafely(n.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Conexión LISTEN {} caída, reintentando en {} ms", CHANNEL, backoff, e);
+                sleep(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void dispatchSafely(String payload) {
+        try {
+            dispatch(payload);
+        } catch (RuntimeException e) {
+            log.warn("Error aplicando invalidación '{}'", payload, e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
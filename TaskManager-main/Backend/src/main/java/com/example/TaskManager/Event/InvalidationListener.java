@@ -0,0 +1,16 @@
+package com.example.TaskManager.Event;
+
+import java.util.Set;
+
+/**
+ * Caché local que se invalida cuando otro nodo escribe (ver InvalidationBus).
+ * entity es el tipo de dato ("task", "sector", "user") e ids las filas que cambiaron.
+ */
+public interface InvalidationListener {
+
+    void onInvalidate(String entity, Set<Long> ids);
+
+    // Se perdió la conexión LISTEN: pudieron perderse avisos, así que se vacía todo
+    default void onInvalidateAll() {
+    }
+}
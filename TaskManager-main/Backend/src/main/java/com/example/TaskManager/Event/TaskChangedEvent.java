@@ -0,0 +1,54 @@
+package com.example.TaskManager.Event;
+
+import com.example.TaskManager.Entity.Task;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Se publica cada vez que se crea, modifica o borra una tarea.
+ * sectorIds son los sectores afectados (el anterior y el nuevo si la tarea cambió de sector),
+ * para que los datos derivados (tiles del mapa, cachés) se actualicen solo donde hace falta.
+ */
+public record TaskChangedEvent(ChangeType type, List<Long> taskIds, Set<Long> sectorIds) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static TaskChangedEvent created(Task task) {
+        return new TaskChangedEvent(ChangeType.CREATED, List.of(task.getId()), sectorsOf(sectorIdOf(task)));
+    }
+
+    public static TaskChangedEvent updated(Task task, Long previousSectorId) {
+        return new TaskChangedEvent(ChangeType.UPDATED, List.of(task.getId()), sectorsOf(sectorIdOf(task), previousSectorId));
+    }
+
+    // Cambios en bloque (p. ej. reparto automático) donde no se cargan las entidades
+    public static TaskChangedEvent updated(List<Long> taskIds, Collection<Long> sectorIds) {
+        return new TaskChangedEvent(ChangeType.UPDATED, List.copyOf(taskIds), sectorsOf(sectorIds.toArray(Long[]::new)));
+    }
+
+    public static TaskChangedEvent deleted(List<Long> taskIds, Collection<Long> sectorIds) {
+        return new TaskChangedEvent(ChangeType.DELETED, List.copyOf(taskIds), sectorsOf(sectorIds.toArray(Long[]::new)));
+    }
+
+    public static Long sectorIdOf(Task task) {
+        return task.getSector() != null ? task.getSector().getId() : null;
+    }
+
+    private static Set<Long> sectorsOf(Long... sectorIds) {
+        Set<Long> set = new HashSet<>();
+        for (Long id : sectorIds) {
+            if (Objects.nonNull(id)) {
+                set.add(id);
+            }
+        }
+        return Set.copyOf(set);
+    }
+}
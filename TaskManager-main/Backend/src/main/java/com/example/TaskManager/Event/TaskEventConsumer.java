@@ -0,0 +1,64 @@
+package com.example.TaskManager.Event;
+
+import com.example.TaskManager.Entity.TaskEvent;
+import com.example.TaskManager.Repository.TaskEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Consume el outbox en lotes: bloquea con FOR UPDATE SKIP LOCKED (varias instancias pueden correr
+ * a la vez sin repartirse el mismo lote), entrega a todos los TaskEventHandler y borra el lote,
+ * todo en una transacción. Un fallo en un handler deshace el lote y se reintenta en la próxima pasada.
+ */
+@Slf4j
+@Component
+public class TaskEventConsumer {
+
+    private final TaskEventRepository taskEventRepository;
+    private final List<TaskEventHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public TaskEventConsumer(TaskEventRepository taskEventRepository,
+                             List<TaskEventHandler> handlers,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${outbox.batch-size:200}") int batchSize) {
+        this.taskEventRepository = taskEventRepository;
+        this.handlers = handlers;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            // Vacía lo pendiente; cada lote en su propia transacción para no retener bloqueos
+            int processed;
+            do {
+                processed = processBatch();
+            } while (processed == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Error procesando task_event, se reintenta en la próxima pasada", e);
+        }
+    }
+
+    int processBatch() {
+        Integer processed = transactionTemplate.execute(status -> {
+            List<TaskEvent> batch = taskEventRepository.lockNextBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            for (TaskEventHandler handler : handlers) {
+                handler.handle(batch);
+            }
+            taskEventRepository.deleteAllInBatch(batch);
+            return batch.size();
+        });
+        return processed != null ? processed : 0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.TaskManager.Event;
+
+import com.example.TaskManager.Entity.TaskEvent;
+
+import java.util.List;
+
+/**
+ * Receptor de eventos del outbox (task_event). Cualquier bean que implemente esta interfaz
+ * recibe los eventos en lotes, en orden de escritura, fuera del camino de la petición.
+ * Si lanza una excepción el lote completo se reintenta en la siguiente pasada, así que debe ser idempotente.
+ */
+public interface TaskEventHandler {
+
+    void handle(List<TaskEvent> events);
+}
@@ -0,0 +1,24 @@
+package com.example.TaskManager.Event;
+
+import com.example.TaskManager.Entity.TaskEvent;
+import com.example.TaskManager.Repository.TaskEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Escribe cada TaskChangedEvent en task_event. Es un listener síncrono (no transaccional):
+ * corre dentro de la transacción de quien publica, así el evento queda guardado si y solo si
+ * el cambio de la tarea se confirma.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskEventOutboxWriter {
+
+    private final TaskEventRepository taskEventRepository;
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        taskEventRepository.save(TaskEvent.of(event));
+    }
+}
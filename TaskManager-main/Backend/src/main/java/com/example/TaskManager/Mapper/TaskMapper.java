@@ -4,6 +4,7 @@ import com.example.TaskManager.DTO.TaskDTO;
 import com.example.TaskManager.Entity.Sector;
 import com.example.TaskManager.Entity.Task;
 import com.example.TaskManager.Entity.User;
+import com.example.TaskManager.Monitoring.RequestMonitor;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -12,6 +13,16 @@ public class TaskMapper {
     public TaskDTO toDto(Task task) {
         if (task == null) return null;
 
+        // Fase mapping del Server-Timing (una carga lazy aquí suma además en db)
+        long start = RequestMonitor.start();
+        try {
+            return map(task);
+        } finally {
+            RequestMonitor.stop(RequestMonitor.Phase.MAPPING, start);
+        }
+    }
+
+    private TaskDTO map(Task task) {
         TaskDTO dto = new TaskDTO();
         dto.setId(task.getId());
         dto.setTitle(task.getTitle());
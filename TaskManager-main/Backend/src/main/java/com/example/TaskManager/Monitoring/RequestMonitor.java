@@ -0,0 +1,207 @@
+package com.example.TaskManager.Monitoring;
+
+import java.util.Arrays;
+
+/**
+ * Mediciones de la petición HTTP en curso, por hilo: sentencias SQL y duración por fase.
+ * RequestMonitoringFilter abre y cierra la medición; cada fase se instrumenta donde ocurre
+ * (JwtAuthenticationFilter, StatementCountingDataSource, TaskMapper, SerializationTimingAdvice).
+ *
+ * Las fases pueden solaparse: la búsqueda del usuario en auth también suma en db, y una carga
+ * lazy dentro de TaskMapper suma en mapping y en db.
+ * El estado es un objeto por hilo que se reutiliza: medir no crea objetos por petición ni por sentencia.
+ * Fuera de una petición (jobs programados, consumidores) no se mide nada.
+ *
+ * Parte de la petición en otro hilo (lecturas paralelas de /api/batch): el hilo de trabajo abre su medición
+ * con beginWorker, la cierra con endWorker y el hilo de la petición suma el resultado con add. Los tiempos
+ * de varios hilos se suman, así db puede superar a total.
+ */
+public final class RequestMonitor {
+
+    public enum Phase {
+        AUTH("auth"),
+        DB("db"),
+        MAPPING("mapping"),
+        SERIALIZATION("ser");
+
+        static final Phase[] VALUES = values();
+
+        final String serverTimingName;
+
+        Phase(String serverTimingName) {
+            this.serverTimingName = serverTimingName;
+        }
+    }
+
+    static final class State {
+        boolean active;
+        long startNanos;
+        int statements;
+        final long[] phaseNanos = new long[Phase.VALUES.length];
+        long serializationStart;
+        long endNanos;
+        // La petición es de un ADMIN autenticado: puede ver los headers de medición
+        boolean admin;
+        // Se reutiliza para armar el header Server-Timing
+        final StringBuilder header = new StringBuilder(128);
+
+        void reset(long now) {
+            active = true;
+            startNanos = now;
+            statements = 0;
+            Arrays.fill(phaseNanos, 0L);
+            serializationStart = 0L;
+            endNanos = 0L;
+            admin = false;
+        }
+
+        long totalNanos() {
+            return (endNanos != 0L ? endNanos : System.nanoTime()) - startNanos;
+        }
+
+        long nanos(Phase phase) {
+            return phaseNanos[phase.ordinal()];
+        }
+
+        // auth;dur=0.4, db;dur=3.1;desc="5", mapping;dur=0.2, ser;dur=0.9, total;dur=5.0 (ms)
+        String serverTiming() {
+            header.setLength(0);
+            for (Phase phase : Phase.VALUES) {
+                long nanos = phaseNanos[phase.ordinal()];
+                if (nanos == 0L && phase != Phase.DB) {
+                    continue;
+                }
+                appendEntry(phase.serverTimingName, nanos);
+                if (phase == Phase.DB) {
+                    header.append(";desc=\"").append(statements).append('"');
+                }
+                header.append(", ");
+            }
+            appendEntry("total", totalNanos());
+            return header.toString();
+        }
+
+        private void appendEntry(String name, long nanos) {
+            long tenths = nanos / 100_000;
+            header.append(name).append(";dur=").append(tenths / 10).append('.').append(tenths % 10);
+        }
+    }
+
+    private static final ThreadLocal<State> CURRENT = ThreadLocal.withInitial(State::new);
+
+    private RequestMonitor() {
+    }
+
+    static State begin() {
+        State state = CURRENT.get();
+        state.reset(System.nanoTime());
+        return state;
+    }
+
+    // Cierra la medición: la serialización va desde que empezó a escribirse el cuerpo hasta aquí
+    static void end(State state) {
+        long now = System.nanoTime();
+        if (state.serializationStart != 0L) {
+            state.phaseNanos[Phase.SERIALIZATION.ordinal()] += now - state.serializationStart;
+            state.serializationStart = 0L;
+        }
+        state.endNanos = now;
+        state.active = false;
+    }
+
+    /** Inicio de un tramo de la fase; 0 si no hay petición en curso (y entonces stop no hace nada). */
+    public static long start() {
+        return CURRENT.get().active ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(Phase phase, long startNanos) {
+        if (startNanos != 0L) {
+            State state = CURRENT.get();
+            if (state.active) {
+                state.phaseNanos[phase.ordinal()] += System.nanoTime() - startNanos;
+            }
+        }
+    }
+
+    static void statementExecuted(long startNanos) {
+        State state = CURRENT.get();
+        if (state.active) {
+            state.statements++;
+            if (startNanos != 0L) {
+                state.phaseNanos[Phase.DB.ordinal()] += System.nanoTime() - startNanos;
+            }
+        }
+    }
+
+    static void serializationStarted() {
+        State state = CURRENT.get();
+        if (state.active && state.serializationStart == 0L) {
+            state.serializationStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Abre la medición en un hilo de trabajo de la petición. false si el hilo ya está midiendo una petición
+     * (la tarea corrió en el mismo hilo de la petición, p. ej. CallerRunsPolicy): lo medido ya cuenta ahí.
+     */
+    public static boolean beginWorker() {
+        State state = CURRENT.get();
+        if (state.active) {
+            return false;
+        }
+        state.reset(System.nanoTime());
+        return true;
+    }
+
+    /** Cierra la medición abierta con beginWorker y devuelve lo medido en este hilo. */
+    public static Usage endWorker() {
+        State state = CURRENT.get();
+        end(state);
+        return new Usage(state.statements, state.phaseNanos.clone());
+    }
+
+    /** Suma a la petición en curso lo medido en un hilo de trabajo (null: nada que sumar). */
+    public static void add(Usage usage) {
+        State state = CURRENT.get();
+        if (usage == null || !state.active) {
+            return;
+        }
+        state.statements += usage.statements;
+        for (int i = 0; i < usage.phaseNanos.length; i++) {
+            state.phaseNanos[i] += usage.phaseNanos[i];
+        }
+    }
+
+    /** Sentencias y tiempo por fase medidos en un hilo de trabajo. */
+    public static final class Usage {
+
+        private final int statements;
+        private final long[] phaseNanos;
+
+        private Usage(int statements, long[] phaseNanos) {
+            this.statements = statements;
+            this.phaseNanos = phaseNanos;
+        }
+
+        public int statements() {
+            return statements;
+        }
+
+        public long nanos(Phase phase) {
+            return phaseNanos[phase.ordinal()];
+        }
+    }
+
+    // Lo marca el filtro de autenticación: al terminar la cadena el SecurityContext ya se limpió
+    public static void adminRequest() {
+        State state = CURRENT.get();
+        if (state.active) {
+            state.admin = true;
+        }
+    }
+
+    public static int statements() {
+        State state = CURRENT.get();
+        return state.active ? state.statements : 0;
+    }
+}
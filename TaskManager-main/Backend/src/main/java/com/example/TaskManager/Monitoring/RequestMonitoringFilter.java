@@ -0,0 +1,167 @@
+package com.example.TaskManager.Monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mide cada petición (incluida la autenticación) con RequestMonitor y publica:
+ * - X-SQL-Statement-Count: sentencias SQL de la petición (un N+1 se ve como un conteo que crece con la lista)
+ * - Server-Timing: duración por fase (auth, db, mapping, ser) y total
+ * - métrica http.server.requests.sql.statements por método, patrón de URI y estado
+ * - una línea de log clave=valor para una muestra de las peticiones y para todas las lentas
+ *
+ * Los headers se ponen justo antes de escribir el cuerpo. Si la respuesta cabe en el buffer
+ * (no quedó comprometida) se reescriben al final con la serialización incluida.
+ * Solo se mandan a usuarios ADMIN autenticados (o a todos con monitoring.timing.expose-headers=true):
+ * el conteo de sentencias y los tiempos por fase dicen demasiado del backend a un cliente cualquiera.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestMonitoringFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-SQL-Statement-Count";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+    static final String METRIC = "http.server.requests.sql.statements";
+
+    private final MeterRegistry meterRegistry;
+    private final double logSampleRate;
+    private final long slowNanos;
+    private final boolean exposeHeaders;
+
+    public RequestMonitoringFilter(
+            MeterRegistry meterRegistry,
+            @Value("${monitoring.timing.log-sample-rate:0.01}") double logSampleRate,
+            @Value("${monitoring.timing.slow-ms:500}") long slowMillis,
+            @Value("${monitoring.timing.expose-headers:false}") boolean exposeHeaders) {
+        this.meterRegistry = meterRegistry;
+        this.logSampleRate = logSampleRate;
+        this.slowNanos = slowMillis * 1_000_000L;
+        this.exposeHeaders = exposeHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RequestMonitor.State state = RequestMonitor.begin();
+        try {
+            filterChain.doFilter(request, new MonitoredResponse(response, state, exposeHeaders));
+        } finally {
+            RequestMonitor.end(state);
+            // Respuestas sin cuerpo o que quedaron en el buffer: headers finales aquí
+            if (!response.isCommitted() && (exposeHeaders || state.admin)) {
+                setHeaders(response, state);
+            }
+            String uri = uriPattern(request);
+            DistributionSummary.builder(METRIC)
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .tag("status", Integer.toString(response.getStatus()))
+                    .register(meterRegistry)
+                    .record(state.statements);
+            log(request, response, uri, state);
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, String uri, RequestMonitor.State state) {
+        long total = state.totalNanos();
+        boolean slow = total >= slowNanos;
+        if (!slow && ThreadLocalRandom.current().nextDouble() >= logSampleRate) {
+            return;
+        }
+        log.info("request method={} uri={} status={} slow={} total_ms={} auth_ms={} db_ms={} db_statements={} mapping_ms={} ser_ms={}",
+                request.getMethod(), uri, response.getStatus(), slow, millis(total),
+                millis(state.nanos(RequestMonitor.Phase.AUTH)), millis(state.nanos(RequestMonitor.Phase.DB)),
+                state.statements, millis(state.nanos(RequestMonitor.Phase.MAPPING)),
+                millis(state.nanos(RequestMonitor.Phase.SERIALIZATION)));
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 100_000.0) / 10.0;
+    }
+
+    private static void setHeaders(HttpServletResponse response, RequestMonitor.State state) {
+        response.setIntHeader(STATEMENT_COUNT_HEADER, state.statements);
+        response.setHeader(SERVER_TIMING_HEADER, state.serverTiming());
+    }
+
+    // Patrón de la ruta (/api/tasks/{id}), no la URI real: cardinalidad acotada en métrica y logs
+    private static String uriPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    // Pone los headers con lo medido hasta el momento en que empieza a escribirse la respuesta
+    private static final class MonitoredResponse extends HttpServletResponseWrapper {
+
+        private final RequestMonitor.State state;
+        private final boolean exposeHeaders;
+        private boolean headersSet;
+
+        MonitoredResponse(HttpServletResponse response, RequestMonitor.State state, boolean exposeHeaders) {
+            super(response);
+            this.state = state;
+            this.exposeHeaders = exposeHeaders;
+        }
+
+        private void setHeadersOnce() {
+            if (!headersSet && !isCommitted() && (exposeHeaders || state.admin)) {
+                setHeaders((HttpServletResponse) getResponse(), state);
+                headersSet = true;
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            setHeadersOnce();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            setHeadersOnce();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            setHeadersOnce();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            setHeadersOnce();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            setHeadersOnce();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            setHeadersOnce();
+            super.sendRedirect(location);
+        }
+    }
+}
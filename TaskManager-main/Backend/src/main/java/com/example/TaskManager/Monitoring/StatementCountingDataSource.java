@@ -0,0 +1,109 @@
+package com.example.TaskManager.Monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource que envuelve conexiones y sentencias (proxies JDK) para contar y medir cada execute*
+ * en RequestMonitor (fase db). Un executeBatch cuenta una vez (es un solo viaje a la BD).
+ * No se mide la lectura posterior del ResultSet (el driver ya trae las filas en el execute).
+ * unwrap/isWrapperFor pasan al original, así Hibernate y el pool siguen viendo sus clases, y
+ * close() cierra el original: Spring lo llama al bajar el contexto, así el pool no queda abierto.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        // La espera por una conexión del pool también es tiempo de BD
+        long start = RequestMonitor.start();
+        try {
+            return wrapConnection(super.getConnection());
+        } finally {
+            RequestMonitor.stop(RequestMonitor.Phase.DB, start);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = RequestMonitor.start();
+        try {
+            return wrapConnection(super.getConnection(username, password));
+        } finally {
+            RequestMonitor.stop(RequestMonitor.Phase.DB, start);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = method.invoke(target, args);
+            return switch (method.getName()) {
+                case "createStatement" -> wrapStatement(Statement.class, (Statement) result);
+                case "prepareStatement" -> wrapStatement(PreparedStatement.class, (PreparedStatement) result);
+                case "prepareCall" -> wrapStatement(CallableStatement.class, (CallableStatement) result);
+                default -> result;
+            };
+        });
+    }
+
+    private static <S extends Statement> S wrapStatement(Class<S> type, S statement) {
+        return proxy(type, statement, (target, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return method.invoke(target, args);
+            }
+            long start = RequestMonitor.start();
+            try {
+                return method.invoke(target, args);
+            } finally {
+                RequestMonitor.statementExecuted(start);
+            }
+        });
+    }
+
+    private interface Delegate {
+        Object invoke(Object target, Method method, Object[] args) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Delegate delegate) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            // Identidad del proxy (no la del objeto envuelto) para colecciones y comparaciones
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return target.toString();
+                default:
+                    break;
+            }
+            try {
+                return delegate.invoke(target, method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.TaskManager.Reminder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+// Destino por defecto: deja el recordatorio en el log (útil en local mientras no haya otro canal)
+@Slf4j
+@Component
+public class LoggingReminderSink implements ReminderSink {
+
+    @Override
+    public void deliver(Reminder reminder) {
+        log.info("Recordatorio: tarea {} '{}' del usuario {} vence el {}",
+                reminder.taskId(), reminder.title(), reminder.userId(), reminder.dueDate());
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.TaskManager.Reminder;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Aviso de que una tarea pendiente está por vencer
+public record Reminder(Long taskId, Long userId, String title, LocalDate dueDate, Instant remindAt) {
+}
@@ -0,0 +1,245 @@
+package com.example.TaskManager.Reminder;
+
+import com.example.TaskManager.DTO.ReminderCandidateProjection;
+import com.example.TaskManager.Event.InvalidationListener;
+import com.example.TaskManager.Event.TaskChangedEvent;
+import com.example.TaskManager.Repository.TaskRepository;
+import com.example.TaskManager.Service.AdvisoryLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recordatorios de vencimiento. Al arrancar carga una sola vez las pendientes que vencen dentro del
+ * horizonte (consulta por rango sobre due_date) en una TimingWheel; después solo se actualiza con los
+ * TaskChangedEvent (crear, editar, marcar, borrar) y, al cambiar de día, carga el día que entra al horizonte.
+ * Cada tick avanza la rueda y entrega lo vencido a los ReminderSink.
+ *
+ * Varios nodos: todos mantienen su rueda al día (los cambios de otros nodos llegan por InvalidationBus),
+ * pero solo entrega el que tiene el advisory lock REMINDER_LOCK_KEY. El lock se conserva entre ticks
+ * (ocupa una conexión del pool): si se soltara en cada tick, otro nodo con el tick desfasado lo tomaría
+ * y entregaría los mismos avisos.
+ */
+@Slf4j
+@Service
+public class ReminderService implements InvalidationListener, DisposableBean {
+
+    // Clave del advisory lock del nodo que entrega los recordatorios ("remind")
+    static final long REMINDER_LOCK_KEY = 0x72656d696e64L;
+
+    private final TaskRepository taskRepository;
+    private final AdvisoryLock advisoryLock;
+    private final List<ReminderSink> sinks;
+    private final long tickMillis;
+    private final Duration lead;
+    private final int horizonDays;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private TimingWheel<Long, Reminder> wheel;
+    // Último día de vencimiento cargado en la rueda (null = aún no se carga)
+    private LocalDate loadedUntil;
+    // Avisos ya salidos (o vencidos antes de arrancar), con el vencimiento al que correspondían:
+    // editar la tarea no los repite, cambiarle el vencimiento sí
+    private final Map<Long, LocalDate> delivered = new HashMap<>();
+    // Lock de entrega; solo lo usa el hilo del tick
+    private AdvisoryLock.Handle leadership;
+
+    public ReminderService(TaskRepository taskRepository,
+                           AdvisoryLock advisoryLock,
+                           List<ReminderSink> sinks,
+                           @Value("${reminders.tick-ms:60000}") long tickMillis,
+                           @Value("${reminders.lead-hours:24}") long leadHours,
+                           @Value("${reminders.horizon-days:7}") int horizonDays) {
+        this.taskRepository = taskRepository;
+        this.advisoryLock = advisoryLock;
+        this.sinks = sinks;
+        this.tickMillis = tickMillis;
+        this.lead = Duration.ofHours(leadHours);
+        this.horizonDays = horizonDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        load(Instant.now());
+    }
+
+    synchronized void load(Instant now) {
+        TimingWheel<Long, Reminder> previous = wheel;
+        wheel = new TimingWheel<>(tickOf(now));
+        LocalDate today = LocalDate.ofInstant(now, zone);
+        loadedUntil = today.plusDays(horizonDays);
+        delivered.clear();
+        // Los que ya debieron avisarse antes de arrancar no se repiten (en una recarga, salvo que aún
+        // esperaran en la rueda anterior)
+        for (ReminderCandidateProjection task : taskRepository.findPendingDueBetween(today, loadedUntil)) {
+            Reminder reminder = toReminder(task);
+            if (!reminder.remindAt().isBefore(now) || (previous != null && previous.contains(task.getId()))) {
+                wheel.schedule(task.getId(), reminder, tickOf(reminder.remindAt()));
+            } else {
+                delivered.put(task.getId(), task.getDueDate());
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${reminders.tick-ms:60000}")
+    public void tick() {
+        tick(Instant.now());
+    }
+
+    void tick(Instant now) {
+        List<Reminder> due;
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+            extendHorizon(LocalDate.ofInstant(now, zone).plusDays(horizonDays));
+            due = wheel.advanceTo(tickOf(now));
+            due.forEach(reminder -> delivered.put(reminder.taskId(), reminder.dueDate()));
+        }
+        // Los demás nodos también avanzan su rueda, para no entregar atrasados si pasan a tener el lock
+        if (!holdsLeadership() || due.isEmpty()) {
+            return;
+        }
+        for (Reminder reminder : due) {
+            for (ReminderSink sink : sinks) {
+                try {
+                    sink.deliver(reminder);
+                } catch (RuntimeException e) {
+                    log.warn("Error entregando recordatorio de la tarea {}", reminder.taskId(), e);
+                }
+            }
+        }
+    }
+
+    private boolean holdsLeadership() {
+        if (leadership != null && !leadership.isValid()) {
+            log.warn("Se perdió la conexión del lock de recordatorios");
+            leadership.close();
+            leadership = null;
+        }
+        if (leadership == null) {
+            try {
+                leadership = advisoryLock.tryAcquire(REMINDER_LOCK_KEY).orElse(null);
+            } catch (IllegalStateException e) {
+                log.warn("No se pudo pedir el lock de recordatorios", e);
+            }
+        }
+        return leadership != null;
+    }
+
+    @Override
+    public void destroy() {
+        if (leadership != null) {
+            leadership.close();
+            leadership = null;
+        }
+    }
+
+    // Cambió el día: se cargan solo los días que entraron al horizonte
+    private void extendHorizon(LocalDate until) {
+        if (!until.isAfter(loadedUntil)) {
+            return;
+        }
+        LocalDate today = until.minusDays(horizonDays);
+        delivered.values().removeIf(dueDate -> dueDate.isBefore(today));
+        for (ReminderCandidateProjection task : taskRepository.findPendingDueBetween(loadedUntil.plusDays(1), until)) {
+            Reminder reminder = toReminder(task);
+            wheel.schedule(task.getId(), reminder, tickOf(reminder.remindAt()));
+        }
+        loadedUntil = until;
+    }
+
+    // Después del commit: se relee solo lo que cambió
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.type() == TaskChangedEvent.ChangeType.DELETED) {
+            forget(event.taskIds());
+            return;
+        }
+        List<ReminderCandidateProjection> tasks = taskRepository.findReminderCandidatesByIdIn(event.taskIds());
+        apply(event.taskIds(), tasks);
+    }
+
+    // Cambios de tareas en otros nodos (o del propio, otra vez, desde el outbox: apply es idempotente)
+    @Override
+    public void onInvalidate(String entity, Set<Long> ids) {
+        if ("task".equals(entity)) {
+            List<Long> changedIds = new ArrayList<>(ids);
+            apply(changedIds, taskRepository.findReminderCandidatesByIdIn(changedIds));
+        }
+    }
+
+    // Pudieron perderse avisos: se recarga la ventana (los ya vencidos no se repiten)
+    @Override
+    public void onInvalidateAll() {
+        load(Instant.now());
+    }
+
+    private synchronized void forget(List<Long> taskIds) {
+        if (wheel != null) {
+            taskIds.forEach(wheel::cancel);
+        }
+        taskIds.forEach(delivered::remove);
+    }
+
+    synchronized void apply(List<Long> changedIds, List<ReminderCandidateProjection> tasks) {
+        if (wheel == null) {
+            return;
+        }
+        Set<Long> seen = new HashSet<>();
+        LocalDate today = LocalDate.ofInstant(Instant.ofEpochMilli(wheel.nextTick() * tickMillis), zone);
+        for (ReminderCandidateProjection task : tasks) {
+            seen.add(task.getId());
+            boolean inWindow = task.getDueDate() != null
+                    && !task.getDueDate().isBefore(today)
+                    && !task.getDueDate().isAfter(loadedUntil);
+            if (Boolean.TRUE.equals(task.getFinished()) || !inWindow) {
+                wheel.cancel(task.getId());
+                continue;
+            }
+            Reminder reminder = toReminder(task);
+            long remindTick = tickOf(reminder.remindAt());
+            // Hora de aviso ya pasada (p. ej. creada para mañana): sale en el próximo tick, salvo que ya
+            // se haya avisado para este mismo vencimiento
+            boolean pastDue = remindTick < wheel.nextTick();
+            if (!pastDue || !task.getDueDate().equals(delivered.get(task.getId()))) {
+                wheel.schedule(task.getId(), reminder, remindTick);
+            } else {
+                wheel.cancel(task.getId());
+            }
+        }
+        // Ya no está en task (borrada o archivada)
+        List<Long> gone = changedIds.stream().filter(id -> !seen.contains(id)).toList();
+        gone.forEach(wheel::cancel);
+        gone.forEach(delivered::remove);
+    }
+
+    public synchronized int scheduledCount() {
+        return wheel != null ? wheel.size() : 0;
+    }
+
+    private Reminder toReminder(ReminderCandidateProjection task) {
+        Instant remindAt = task.getDueDate().atStartOfDay(zone).toInstant().minus(lead);
+        return new Reminder(task.getId(), task.getUserId(), task.getTitle(), task.getDueDate(), remindAt);
+    }
+
+    private long tickOf(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), tickMillis);
+    }
+}
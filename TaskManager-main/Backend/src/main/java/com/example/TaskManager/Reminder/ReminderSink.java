@@ -0,0 +1,10 @@
+package com.example.TaskManager.Reminder;
+
+/**
+ * Destino de los recordatorios (correo, push, websocket...). Cada bean que implemente esta
+ * interfaz recibe todos los recordatorios; en tests basta con una implementación que los junte en una lista.
+ */
+public interface ReminderSink {
+
+    void deliver(Reminder reminder);
+}
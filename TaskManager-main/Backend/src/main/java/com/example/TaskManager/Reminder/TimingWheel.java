@@ -0,0 +1,139 @@
+package com.example.TaskManager.Reminder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda de tiempo jerárquica (estilo timer wheel del kernel): LEVELS niveles de SLOTS casillas cada uno.
+ * El nivel 0 tiene una casilla por tick; cada nivel superior cubre SLOTS veces más tiempo por casilla.
+ * Programar y cancelar son O(1); avanzar un tick procesa solo la casilla actual del nivel 0 y, cada
+ * SLOTS ticks, baja (cascade) una casilla del nivel de arriba. Con 64 casillas y 4 niveles se cubren
+ * 64^4 ticks (más de 30 años con ticks de un minuto); lo más lejano se reprograma al bajar de nivel.
+ *
+ * No es thread-safe: quien la usa sincroniza.
+ */
+public class TimingWheel<K, V> {
+
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    static final int LEVELS = 4;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final List<List<Map<K, Entry<K, V>>>> levels = new ArrayList<>(LEVELS);
+    private final Map<K, Entry<K, V>> entries = new HashMap<>();
+    // Siguiente tick a procesar
+    private long nextTick;
+
+    public TimingWheel(long startTick) {
+        this.nextTick = startTick;
+        for (int l = 0; l < LEVELS; l++) {
+            List<Map<K, Entry<K, V>>> slots = new ArrayList<>(SLOTS);
+            for (int s = 0; s < SLOTS; s++) {
+                slots.add(new LinkedHashMap<>());
+            }
+            levels.add(slots);
+        }
+    }
+
+    // Programa (o reprograma) key para dispararse en deadlineTick. Si ya pasó, sale en el próximo tick.
+    public void schedule(K key, V value, long deadlineTick) {
+        cancel(key);
+        Entry<K, V> entry = new Entry<>(key, value, deadlineTick);
+        entries.put(key, entry);
+        place(entry);
+    }
+
+    public boolean cancel(K key) {
+        Entry<K, V> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.slot.remove(key);
+        return true;
+    }
+
+    public boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long nextTick() {
+        return nextTick;
+    }
+
+    // Avanza hasta tick (inclusive) y devuelve los valores vencidos, en orden de tick
+    public List<V> advanceTo(long tick) {
+        List<V> fired = new ArrayList<>();
+        while (nextTick <= tick) {
+            cascade();
+            Map<K, Entry<K, V>> slot = levels.get(0).get((int) (nextTick & SLOT_MASK));
+            if (!slot.isEmpty()) {
+                List<Entry<K, V>> due = new ArrayList<>(slot.values());
+                slot.clear();
+                for (Entry<K, V> entry : due) {
+                    if (entry.deadline <= nextTick) {
+                        entries.remove(entry.key);
+                        fired.add(entry.value);
+                    } else {
+                        // Estaba acotada a MAX_SPAN: todavía no le toca
+                        place(entry);
+                    }
+                }
+            }
+            nextTick++;
+        }
+        return fired;
+    }
+
+    // Al dar la vuelta un nivel, se reparte la casilla correspondiente del nivel de arriba
+    private void cascade() {
+        for (int l = 1; l < LEVELS; l++) {
+            if ((nextTick & ((1L << (SLOT_BITS * l)) - 1)) != 0) {
+                return;
+            }
+            Map<K, Entry<K, V>> slot = levels.get(l).get((int) ((nextTick >> (SLOT_BITS * l)) & SLOT_MASK));
+            if (slot.isEmpty()) {
+                continue;
+            }
+            List<Entry<K, V>> moved = new ArrayList<>(slot.values());
+            slot.clear();
+            moved.forEach(this::place);
+        }
+    }
+
+    private void place(Entry<K, V> entry) {
+        long target = Math.max(entry.deadline, nextTick);
+        long delta = target - nextTick;
+        if (delta >= MAX_SPAN) {
+            target = nextTick + MAX_SPAN - 1;
+            delta = MAX_SPAN - 1;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        Map<K, Entry<K, V>> slot = levels.get(level).get((int) ((target >> (SLOT_BITS * level)) & SLOT_MASK));
+        slot.put(entry.key, entry);
+        entry.slot = slot;
+    }
+
+    private static final class Entry<K, V> {
+        final K key;
+        final V value;
+        final long deadline;
+        Map<K, Entry<K, V>> slot;
+
+        Entry(K key, V value, long deadline) {
+            this.key = key;
+            this.value = value;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -2,8 +2,33 @@ package com.example.TaskManager.Repository;
 
 import com.example.TaskManager.Entity.Sector;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface SectorRepository extends JpaRepository<Sector, Long> {
+
+    // Tile vectorial (Mapbox Vector Tile) con los sectores del tile z/x/y y sus conteos de tareas.
+    // El filtro && contra el envelope del tile (en 4326) usa idx_sector_location.
+    @Query(value = """
+        WITH bounds AS (
+            SELECT ST_TileEnvelope(:z, :x, :y) AS geom3857,
+                   ST_Transform(ST_TileEnvelope(:z, :x, :y), 4326) AS geom4326
+        ),
+        tile AS (
+            SELECT s.id AS "id",
+                   s.name AS "name",
+                   COUNT(t.id) FILTER (WHERE t.finished = false) AS "pending",
+                   COUNT(t.id) FILTER (WHERE t.finished = true) AS "finished",
+                   ST_AsMVTGeom(ST_Transform(s.location, 3857), b.geom3857) AS geom
+            FROM sector s
+            CROSS JOIN bounds b
+            LEFT JOIN task t ON t.sector_id = s.id
+            WHERE s.location && b.geom4326
+            GROUP BY s.id, s.name, s.location, b.geom3857
+        )
+        SELECT ST_AsMVT(tile, 'sectors', 4096, 'geom') FROM tile
+    """, nativeQuery = true)
+    byte[] sectorTile(@Param("z") int z, @Param("x") int x, @Param("y") int y);
 }
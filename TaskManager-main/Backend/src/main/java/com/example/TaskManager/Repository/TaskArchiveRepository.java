@@ -0,0 +1,43 @@
+package com.example.TaskManager.Repository;
+
+import com.example.TaskManager.DTO.ArchivedIdProjection;
+import com.example.TaskManager.Entity.TaskArchive;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TaskArchiveRepository extends JpaRepository<TaskArchive, Long> {
+
+    // Mueve un tramo (keyset por id) de terminadas con fecha anterior a :before desde task a task_archive.
+    // Un solo statement: DELETE ... RETURNING alimenta el INSERT, no hay ventana con la fila en ambas tablas.
+    // Solo lee la partición task_finished.
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM task
+                WHERE finished = true
+                  AND id IN (
+                      SELECT id FROM task
+                      WHERE finished = true AND due_date < :before AND id > :afterId
+                      ORDER BY id
+                      LIMIT :limit)
+                RETURNING id, title, description, due_date, important, user_id, sector_id
+            )
+            INSERT INTO task_archive (id, title, description, due_date, important, user_id, sector_id, archived_at)
+            SELECT id, title, description, due_date, important, user_id, sector_id, now() FROM moved
+            RETURNING CAST(id AS BIGINT) AS "id", CAST(sector_id AS BIGINT) AS "sectorId"
+            """, nativeQuery = true)
+    List<ArchivedIdProjection> archiveFinishedBefore(@Param("before") LocalDate before,
+                                                     @Param("afterId") Long afterId,
+                                                     @Param("limit") int limit);
+
+    // Historial del usuario, más recientes primero (keyset por id)
+    List<TaskArchive> findByUserIdOrderByIdDesc(Long userId, Limit limit);
+
+    List<TaskArchive> findByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long beforeId, Limit limit);
+}
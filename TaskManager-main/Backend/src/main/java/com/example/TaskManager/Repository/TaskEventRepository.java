@@ -0,0 +1,18 @@
+package com.example.TaskManager.Repository;
+
+import com.example.TaskManager.Entity.TaskEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskEventRepository extends JpaRepository<TaskEvent, Long> {
+
+    // Toma el siguiente lote bloqueándolo; otro consumidor concurrente se salta estas filas en vez de esperar.
+    // Debe llamarse dentro de una transacción (el bloqueo dura hasta el commit).
+    @Query(value = "SELECT * FROM task_event ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<TaskEvent> lockNextBatch(@Param("limit") int limit);
+}
@@ -1,103 +1,301 @@
 package com.example.TaskManager.Repository;
 
+import com.example.TaskManager.DTO.DispatchCandidateProjection;
+import com.example.TaskManager.DTO.NearbyTaskProjection;
+import com.example.TaskManager.DTO.ReminderCandidateProjection;
 import com.example.TaskManager.DTO.SectorCountProjection;
+import com.example.TaskManager.DTO.SectorDistanceCountProjection;
 import com.example.TaskManager.DTO.UserSectorCountProjection;
 import com.example.TaskManager.Entity.Task;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
+    // SQL de estadísticas compartido con ReactiveStatisticsReader (/api/rx): el mismo texto por JDBC y por R2DBC
+    String COMPLETED_BY_SECTOR_FOR_USER_SQL = """
+        SELECT s.id AS "sectorId", s.name AS "sectorName", COUNT(t.id) AS "total"
+        FROM task t
+        JOIN sector s ON t.sector_id = s.id
+        WHERE t.user_id = :userId AND t.finished = true
+        GROUP BY s.id, s.name
+    """;
+
+    String TOP_COMPLETED_SECTOR_NEAR_USER_SQL = """
+        SELECT s.id AS "sectorId", s.name AS "sectorName", COUNT(t.id) AS "total"
+        FROM task t
+        JOIN sector s ON t.sector_id = s.id
+        JOIN user_sector_distance d ON d.user_id = t.user_id AND d.sector_id = t.sector_id
+        WHERE t.user_id = :userId 
+          AND t.finished = true
+          AND d.meters <= :distanceInMeters
+        GROUP BY s.id, s.name
+        ORDER BY "total" DESC
+        LIMIT 1
+    """;
+
+    String AVG_DISTANCE_COMPLETED_FOR_USER_SQL = """
+        SELECT AVG(d.meters)
+        FROM task t
+        JOIN user_sector_distance d ON d.user_id = t.user_id AND d.sector_id = t.sector_id
+        WHERE t.user_id = :userId AND t.finished = true
+    """;
+
+    String COMPLETED_BY_SECTOR_WITH_DISTANCE_FOR_USER_SQL = """
+        SELECT s.id AS "sectorId", s.name AS "sectorName", d.meters AS "meters", COUNT(t.id) AS "total"
+        FROM task t
+        JOIN sector s ON t.sector_id = s.id
+        JOIN user_sector_distance d ON d.user_id = t.user_id AND d.sector_id = t.sector_id
+        WHERE t.user_id = :userId AND t.finished = true
+        GROUP BY s.id, s.name, d.meters
+        ORDER BY d.meters ASC
+    """;
+
+    String PENDING_BY_SECTOR_SQL = """
+        SELECT s.id AS "sectorId", s.name AS "sectorName", COUNT(t.id) AS "total"
+        FROM task t
+        JOIN sector s ON t.sector_id = s.id
+        WHERE t.finished = false
+        GROUP BY s.id, s.name
+        ORDER BY "total" DESC
+    """;
+
+    String COMPLETED_BY_USER_AND_SECTOR_SQL = """
+        SELECT u.user_id AS "userId", u.username AS "username", s.id AS "sectorId", s.name AS "sectorName", COUNT(t.id) AS "total"
+        FROM task t
+        JOIN sector s ON t.sector_id = s.id
+        JOIN db_user u ON t.user_id = u.user_id
+        WHERE t.finished = true
+        GROUP BY u.user_id, u.username, s.id, s.name
+        ORDER BY u.username, "total" DESC
+    """;
+
+    // Las listas que pasan por TaskMapper traen el sector en el mismo SELECT:
+    // sin el fetch, leer sectorName dispara una consulta por sector distinto (N+1)
+    @EntityGraph(attributePaths = "sector")
     List<Task> findByUser_Id(Long userId);
 
     // Legacy query methods expected by tests
-    @Query("SELECT t FROM Task t WHERE t.user.id = :id ORDER BY t.dueDate ASC")
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.sector WHERE t.user.id = :id ORDER BY t.dueDate ASC")
     List<Task> findAllByUserIdOrderByDateAsc(@Param("id") Long id);
 
-    @Query("SELECT t FROM Task t WHERE t.finished = true AND t.user.id = :id ORDER BY t.dueDate ASC")
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.sector WHERE t.finished = true AND t.user.id = :id ORDER BY t.dueDate ASC")
     List<Task> findAllByFinishedTrueAndUserIdOrderByDateAsc(@Param("id") Long id);
 
-    @Query("SELECT t FROM Task t WHERE t.finished = false AND t.user.id = :id ORDER BY t.dueDate ASC")
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.sector WHERE t.finished = false AND t.user.id = :id ORDER BY t.dueDate ASC")
     List<Task> findAllByFinishedFalseAndUserIdOrderByDateAsc(@Param("id") Long id);
 
-    @Query("SELECT t FROM Task t WHERE t.important = true AND t.user.id = :id ORDER BY t.dueDate ASC")
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.sector WHERE t.important = true AND t.user.id = :id ORDER BY t.dueDate ASC")
     List<Task> findAllByImportantTrueAndUserIdOrderByDateAsc(@Param("id") Long id);
 
-    // 1. Tareas por sector (Usuario) - Sin cambios, esta ya funcionaba
+    // Todas las tareas (vista de admin) con su sector
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.sector ORDER BY t.id")
+    List<Task> findAllWithSector();
+
+    // Candidatos para el reparto automático: por cada tarea pendiente, los :candidates usuarios (rol USER)
+    // más cercanos a su sector, vía KNN sobre el índice GiST de db_user.geog. Tareas sin sector no aparecen.
     @Query(value = """
-        SELECT s.id AS "sectorId", s.name AS "sectorName", COUNT(t.id) AS "total"
-        FROM task t
-        JOIN sector s ON t.sector_id = s.id
-        WHERE t.user_id = :userId AND t.finished = true
-        GROUP BY s.id, s.name
+            SELECT t.id AS "taskId", t.sector_id AS "sectorId", t.user_id AS "currentUserId",
+                   c.user_id AS "userId", c.meters AS "meters"
+            FROM task t
+            JOIN sector s ON s.id = t.sector_id
+            CROSS JOIN LATERAL (
+                SELECT u.user_id, ST_Distance(u.geog, s.geog) AS meters
+                FROM db_user u
+                WHERE u.role = 'USER' AND u.geog IS NOT NULL
+                ORDER BY u.geog <-> s.geog
+                LIMIT :candidates
+            ) c
+            WHERE t.finished = false AND t.id IN (:ids)
+            ORDER BY c.meters, t.id
+            """, nativeQuery = true)
+    List<DispatchCandidateProjection> dispatchCandidatesForTasks(@Param("ids") Collection<Long> ids,
+                                                                 @Param("candidates") int candidates);
+
+    @Query(value = """
+            SELECT t.id AS "taskId", t.sector_id AS "sectorId", t.user_id AS "currentUserId",
+                   c.user_id AS "userId", c.meters AS "meters"
+            FROM task t
+            JOIN sector s ON s.id = t.sector_id
+            CROSS JOIN LATERAL (
+                SELECT u.user_id, ST_Distance(u.geog, s.geog) AS meters
+                FROM db_user u
+                WHERE u.role = 'USER' AND u.geog IS NOT NULL
+                ORDER BY u.geog <-> s.geog
+                LIMIT :candidates
+            ) c
+            WHERE t.finished = false AND t.sector_id = :sectorId
+            ORDER BY c.meters, t.id
+            """, nativeQuery = true)
+    List<DispatchCandidateProjection> dispatchCandidatesForSector(@Param("sectorId") Long sectorId,
+                                                                  @Param("candidates") int candidates);
+
+    // Pendientes que vencen en [from, to]: rango sobre idx_task_pending_due (solo partición task_pending)
+    @Query("""
+            SELECT t.id AS id, t.user.id AS userId, t.title AS title, t.dueDate AS dueDate, t.finished AS finished
+            FROM Task t
+            WHERE t.finished = false AND t.dueDate BETWEEN :from AND :to
+            """)
+    List<ReminderCandidateProjection> findPendingDueBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Las mismas columnas para tareas puntuales (recién creadas/modificadas), sin filtrar por estado
+    @Query("""
+            SELECT t.id AS id, t.user.id AS userId, t.title AS title, t.dueDate AS dueDate, t.finished AS finished
+            FROM Task t
+            WHERE t.id IN :ids
+            """)
+    List<ReminderCandidateProjection> findReminderCandidatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Sector actual de la tarea (null si no existe o no tiene), para invalidar su tile antes de cambiarla
+    @Query("SELECT s.id FROM Task t LEFT JOIN t.sector s WHERE t.id = :id")
+    Long findSectorIdById(@Param("id") Long id);
+
+    // Pendientes del usuario con su sector ya cargado (para armar la ruta sin N+1)
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.sector WHERE t.user.id = :id AND t.finished = false ORDER BY t.dueDate ASC")
+    List<Task> findPendingWithSectorByUserId(@Param("id") Long id);
+
+    // Borrado directo: un solo DELETE (sin SELECT previo).
+    // RETURNING devuelve una fila por tarea borrada con su sector (lista vacía = no existía).
+    // Sin @Modifying a propósito (igual en los dos siguientes): Spring Data solo admite void/int en consultas
+    // @Modifying, y aquí la sentencia devuelve filas, así que se ejecuta como una consulta que lee el RETURNING.
+    @Transactional
+    @Query(value = "DELETE FROM task WHERE id = :id RETURNING CAST(sector_id AS BIGINT)", nativeQuery = true)
+    List<Long> deleteTaskById(@Param("id") Long id);
+
+    // Igual que el anterior, pero solo borra si la tarea pertenece al usuario
+    @Transactional
+    @Query(value = "DELETE FROM task WHERE id = :id AND user_id = :userId RETURNING CAST(sector_id AS BIGINT)", nativeQuery = true)
+    List<Long> deleteTaskByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Borrado masivo por lista de ids (el servicio lo llama por tramos)
+    @Transactional
+    @Query(value = "DELETE FROM task WHERE id IN (:ids) RETURNING CAST(sector_id AS BIGINT)", nativeQuery = true)
+    List<Long> deleteTasksByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Siguiente tramo (keyset por id) de tareas terminadas con fecha anterior a :before
+    @Query("SELECT t.id FROM Task t WHERE t.finished = true AND t.dueDate < :before AND t.id > :afterId ORDER BY t.id ASC")
+    List<Long> findFinishedIdsBefore(@Param("before") LocalDate before, @Param("afterId") Long afterId, Limit limit);
+
+    // Sincronización delta (GET /api/tasks/changes): tareas del usuario con versión >= :since,
+    // por idx_task_user_version
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.sector WHERE t.user.id = :userId AND t.changeVersion >= :since ORDER BY t.changeVersion, t.id")
+    List<Task> findChangedSince(@Param("userId") Long userId, @Param("since") Long since);
+
+    // Ids borrados (o reasignados a otro usuario) con versión >= :since, por idx_task_tombstone_user_version
+    @Query(value = "SELECT CAST(task_id AS BIGINT) FROM task_tombstone WHERE user_id = :userId AND change_version >= :since", nativeQuery = true)
+    List<Long> findTombstonedSince(@Param("userId") Long userId, @Param("since") Long since);
+
+    // Versión segura para el próximo since: toda transacción con xid menor ya terminó (commit o rollback),
+    // así una escritura en curso no queda detrás del cursor del cliente
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS TEXT) AS BIGINT)", nativeQuery = true)
+    Long changeWatermark();
+
+    // Versión más alta de lápida ya purgada: un since menor o igual exige resincronización completa
+    @Query(value = "SELECT version FROM task_sync_horizon", nativeQuery = true)
+    Long syncHorizon();
+
+    // Purga lápidas anteriores a :before y sube el horizonte hasta la versión más alta purgada
+    @Modifying
+    @Transactional
+    @Query(value = """
+        WITH purged AS (
+            DELETE FROM task_tombstone WHERE deleted_at < :before RETURNING change_version
+        )
+        UPDATE task_sync_horizon
+        SET version = GREATEST(version, (SELECT COALESCE(MAX(change_version), 0) FROM purged))
     """, nativeQuery = true)
+    int purgeTombstonesBefore(@Param("before") LocalDate before);
+
+    // 1. Tareas por sector (Usuario) - Sin cambios, esta ya funcionaba
+    @Query(value = COMPLETED_BY_SECTOR_FOR_USER_SQL, nativeQuery = true)
     List<SectorCountProjection> countCompletedBySectorForUser(@Param("userId") Long userId);
 
     // 2 y 6. Tarea más cercana pendiente
-    // CAMBIO: Usamos ST_Distance normal para ordenar, es más seguro para Hibernate que el operador <->
+    // Ordena por la distancia precalculada de user_sector_distance (PK usuario/sector), no por ST_Distance:
+    // ordenar un join por distancia no aprovecha los índices GiST y calculaba un esferoide por cada fila.
+    // Sin ubicación no hay fila de distancia: esas tareas quedan al final (NULL), como antes
     @Query(value = """
         SELECT t.*
         FROM task t
         JOIN sector s ON t.sector_id = s.id
-        JOIN db_user u ON t.user_id = u.user_id
-        WHERE u.user_id = :userId AND t.finished = false
-        ORDER BY ST_Distance(u.location, s.location) ASC
+        LEFT JOIN user_sector_distance d ON d.user_id = t.user_id AND d.sector_id = t.sector_id
+        WHERE t.user_id = :userId AND t.finished = false
+        ORDER BY d.meters ASC
         LIMIT 1
     """, nativeQuery = true)
     Task findNearestPendingTaskForUser(@Param("userId") Long userId);
 
     // 3 y 8. Top Sector (Radio X)
-    // CAMBIO CRUCIAL: Reemplazado ::geography por CAST(... AS geography) para evitar error de Hibernate
-    @Query(value = """
-        SELECT s.id AS "sectorId", s.name AS "sectorName", COUNT(t.id) AS "total"
-        FROM task t
-        JOIN sector s ON t.sector_id = s.id
-        JOIN db_user u ON t.user_id = u.user_id
-        WHERE u.user_id = :userId 
-          AND t.finished = true
-          AND ST_DWithin(CAST(u.location AS geography), CAST(s.location AS geography), :distanceInMeters)
-        GROUP BY s.id, s.name
-        ORDER BY "total" DESC
-        LIMIT 1
-    """, nativeQuery = true)
+    // Lee la distancia precalculada de user_sector_distance: sin cálculo geodésico por fila
+    @Query(value = TOP_COMPLETED_SECTOR_NEAR_USER_SQL, nativeQuery = true)
     SectorCountProjection topCompletedSectorNearUser(@Param("userId") Long userId, @Param("distanceInMeters") double distanceInMeters);
 
     // 4 y 9. Promedio distancia
-    // CAMBIO CRUCIAL: Reemplazado ::geography por CAST(... AS geography)
+    // Igual que la anterior: promedio sobre las distancias precalculadas
+    @Query(value = AVG_DISTANCE_COMPLETED_FOR_USER_SQL, nativeQuery = true)
+    Double avgDistanceCompletedTasksForUser(@Param("userId") Long userId);
+
+    // 10. Completadas por sector con su distancia al usuario
+    // Una sola pasada: las bandas de radio (1km, 2km, 5km...) se arman en memoria sobre este resultado
+    @Query(value = COMPLETED_BY_SECTOR_WITH_DISTANCE_FOR_USER_SQL, nativeQuery = true)
+    List<SectorDistanceCountProjection> completedBySectorWithDistanceForUser(@Param("userId") Long userId);
+
+    // 11. Tareas cerca de un punto cualquiera, ordenadas por distancia (primera página)
+    // ST_DWithin sobre s.geog usa idx_sector_geog: el índice filtra primero por la caja
+    // expandida del radio y solo a esos candidatos se les calcula la distancia exacta.
     @Query(value = """
-        SELECT AVG(ST_Distance(CAST(u.location AS geography), CAST(s.location AS geography)))
+        SELECT t.id AS "id", t.title AS "title", t.description AS "description", t.due_date AS "dueDate",
+               t.finished AS "finished", t.important AS "important", t.user_id AS "userId",
+               s.id AS "sectorId", s.name AS "sectorName",
+               ST_Distance(s.geog, p.geog) AS "distance"
         FROM task t
         JOIN sector s ON t.sector_id = s.id
-        JOIN db_user u ON t.user_id = u.user_id
-        WHERE u.user_id = :userId AND t.finished = true
+        CROSS JOIN (SELECT CAST(ST_SetSRID(ST_MakePoint(:lon, :lat), 4326) AS geography) AS geog) p
+        WHERE t.finished = :finished
+          AND ST_DWithin(s.geog, p.geog, :radius)
+        ORDER BY "distance" ASC, t.id ASC
+        LIMIT :limit
     """, nativeQuery = true)
-    Double avgDistanceCompletedTasksForUser(@Param("userId") Long userId);
+    List<NearbyTaskProjection> findNearPoint(@Param("lat") double lat, @Param("lon") double lon,
+                                             @Param("radius") double radius, @Param("finished") boolean finished,
+                                             @Param("limit") int limit);
 
-    // 5. Global Pendientes - Sin cambios
+    // 11b. Páginas siguientes: cursor (distancia, id) de la última fila ya entregada
     @Query(value = """
-        SELECT s.id AS "sectorId", s.name AS "sectorName", COUNT(t.id) AS "total"
+        SELECT t.id AS "id", t.title AS "title", t.description AS "description", t.due_date AS "dueDate",
+               t.finished AS "finished", t.important AS "important", t.user_id AS "userId",
+               s.id AS "sectorId", s.name AS "sectorName",
+               ST_Distance(s.geog, p.geog) AS "distance"
         FROM task t
         JOIN sector s ON t.sector_id = s.id
-        WHERE t.finished = false
-        GROUP BY s.id, s.name
-        ORDER BY "total" DESC
+        CROSS JOIN (SELECT CAST(ST_SetSRID(ST_MakePoint(:lon, :lat), 4326) AS geography) AS geog) p
+        WHERE t.finished = :finished
+          AND ST_DWithin(s.geog, p.geog, :radius)
+          AND (ST_Distance(s.geog, p.geog), t.id) > (:afterDistance, :afterId)
+        ORDER BY "distance" ASC, t.id ASC
+        LIMIT :limit
     """, nativeQuery = true)
+    List<NearbyTaskProjection> findNearPointAfter(@Param("lat") double lat, @Param("lon") double lon,
+                                                  @Param("radius") double radius, @Param("finished") boolean finished,
+                                                  @Param("afterDistance") double afterDistance, @Param("afterId") Long afterId,
+                                                  @Param("limit") int limit);
+
+    // 5. Global Pendientes - Sin cambios
+    @Query(value = PENDING_BY_SECTOR_SQL, nativeQuery = true)
     List<SectorCountProjection> pendingTasksBySector();
 
     // 7. Global por Usuario - Sin cambios
-    @Query(value = """
-        SELECT u.user_id AS "userId", u.username AS "username", s.id AS "sectorId", s.name AS "sectorName", COUNT(t.id) AS "total"
-        FROM task t
-        JOIN sector s ON t.sector_id = s.id
-        JOIN db_user u ON t.user_id = u.user_id
-        WHERE t.finished = true
-        GROUP BY u.user_id, u.username, s.id, s.name
-        ORDER BY u.username, "total" DESC
-    """, nativeQuery = true)
+    @Query(value = COMPLETED_BY_USER_AND_SECTOR_SQL, nativeQuery = true)
     List<UserSectorCountProjection> completedTasksByUserAndSector();
 }
\ No newline at end of file
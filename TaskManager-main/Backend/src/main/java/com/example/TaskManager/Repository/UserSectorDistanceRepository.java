@@ -0,0 +1,60 @@
+package com.example.TaskManager.Repository;
+
+import com.example.TaskManager.Entity.UserSectorDistance;
+import com.example.TaskManager.Entity.UserSectorDistanceId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserSectorDistanceRepository extends JpaRepository<UserSectorDistance, UserSectorDistanceId> {
+
+    @Modifying
+    @Query(value = "DELETE FROM user_sector_distance WHERE user_id = :userId", nativeQuery = true)
+    int deleteAllForUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_sector_distance WHERE sector_id = :sectorId", nativeQuery = true)
+    int deleteAllForSector(@Param("sectorId") Long sectorId);
+
+    // Distancias de un usuario a todos los sectores (si tiene ubicación)
+    @Modifying
+    @Query(value = """
+        INSERT INTO user_sector_distance (user_id, sector_id, meters)
+        SELECT u.user_id, s.id, ST_Distance(u.geog, s.geog)
+        FROM db_user u
+        CROSS JOIN sector s
+        WHERE u.user_id = :userId AND u.geog IS NOT NULL AND s.geog IS NOT NULL
+    """, nativeQuery = true)
+    int insertAllForUser(@Param("userId") Long userId);
+
+    // Distancias de todos los usuarios con ubicación a un sector
+    @Modifying
+    @Query(value = """
+        INSERT INTO user_sector_distance (user_id, sector_id, meters)
+        SELECT u.user_id, s.id, ST_Distance(u.geog, s.geog)
+        FROM sector s
+        CROSS JOIN db_user u
+        WHERE s.id = :sectorId AND u.geog IS NOT NULL AND s.geog IS NOT NULL
+    """, nativeQuery = true)
+    int insertAllForSector(@Param("sectorId") Long sectorId);
+
+    // Relleno inicial: solo los pares que faltan (datos cargados por script o anteriores a la tabla).
+    // El NOT EXISTS (anti-join por la PK) descarta los pares existentes antes de calcular ST_Distance:
+    // con la tabla completa no se calcula ninguna distancia. ON CONFLICT cubre el insert concurrente de otro nodo
+    @Modifying
+    @Query(value = """
+        INSERT INTO user_sector_distance (user_id, sector_id, meters)
+        SELECT u.user_id, s.id, ST_Distance(u.geog, s.geog)
+        FROM db_user u
+        CROSS JOIN sector s
+        WHERE u.geog IS NOT NULL AND s.geog IS NOT NULL
+          AND NOT EXISTS (
+              SELECT 1 FROM user_sector_distance d
+              WHERE d.user_id = u.user_id AND d.sector_id = s.id)
+        ON CONFLICT (user_id, sector_id) DO NOTHING
+    """, nativeQuery = true)
+    int insertMissing();
+}
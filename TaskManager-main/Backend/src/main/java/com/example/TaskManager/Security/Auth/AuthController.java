@@ -1,9 +1,12 @@
 package com.example.TaskManager.Security.Auth;
 
+import com.example.TaskManager.Security.Hashing.HashingOverloadedException;
 import com.example.TaskManager.Security.Payload.JwtResponse;
 import com.example.TaskManager.Security.Payload.LoginRequest;
 import com.example.TaskManager.Security.Payload.RegisterRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,4 +26,12 @@ public class AuthController {
     public ResponseEntity<JwtResponse> register(@RequestBody RegisterRequest request){
         return ResponseEntity.ok(authService.register(request));
     }
-}
\ No newline at end of file
+
+    // Pool de hashing lleno: 503 inmediato para que el cliente reintente luego
+    @ExceptionHandler(HashingOverloadedException.class)
+    public ResponseEntity<Void> hashingOverloaded() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+}
@@ -3,16 +3,19 @@ package com.example.TaskManager.Security.Auth;
 import com.example.TaskManager.Entity.Role;
 import com.example.TaskManager.Entity.User;
 import com.example.TaskManager.Repository.UserRepository;
+import com.example.TaskManager.Security.Hashing.FailedLoginCache;
 import com.example.TaskManager.Security.Jwt.JwtService;
 import com.example.TaskManager.Security.Payload.JwtResponse;
 import com.example.TaskManager.Security.Payload.LoginRequest;
 import com.example.TaskManager.Security.Payload.RegisterRequest;
+import com.example.TaskManager.Service.UserSectorDistanceService;
 import lombok.RequiredArgsConstructor;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -25,17 +28,29 @@ public class AuthService {
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authManager;
+    private final UserSectorDistanceService distanceService;
+    private final FailedLoginCache failedLoginCache;
 
     private final GeometryFactory geometryFactory =
             new GeometryFactory(new PrecisionModel(), 4326);
 
     public JwtResponse login(LoginRequest request) {
-        authManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getUsername(),
-                        request.getPassword()
-                )
-        );
+        // Reintento idéntico de un login que acaba de fallar: se rechaza sin pasar por BCrypt
+        long now = System.currentTimeMillis();
+        if (failedLoginCache.recentlyFailed(request.getUsername(), request.getPassword(), now)) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        try {
+            authManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getUsername(),
+                            request.getPassword()
+                    )
+            );
+        } catch (BadCredentialsException e) {
+            failedLoginCache.recordFailure(request.getUsername(), request.getPassword(), now);
+            throw e;
+        }
 
         User user = repository.findByUsername(request.getUsername())
                 .orElseThrow();
@@ -72,6 +87,12 @@ public class AuthService {
                 .build();
 
         repository.save(user);
+        failedLoginCache.forget(user.getUsername());
+
+        // Nueva ubicación -> recalcular solo las distancias de este usuario
+        if (location != null) {
+            distanceService.refreshForUser(user.getId());
+        }
 
         return JwtResponse.builder()
                 .token(jwtService.getToken(user))
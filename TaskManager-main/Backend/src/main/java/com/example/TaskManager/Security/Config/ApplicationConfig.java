@@ -1,7 +1,10 @@
 package com.example.TaskManager.Security.Config;
 
 import com.example.TaskManager.Repository.UserRepository;
+import com.example.TaskManager.Security.Hashing.BoundedPasswordEncoder;
+import com.example.TaskManager.Security.Hashing.FailedLoginCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,6 +14,9 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @RequiredArgsConstructor
@@ -24,10 +30,10 @@ public class ApplicationConfig {
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider(){
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder){
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService());
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
         return provider;
     }
 
@@ -37,9 +43,20 @@ public class ApplicationConfig {
                 .orElseThrow(()-> new UsernameNotFoundException("User not found"));
     }
 
+    // BCrypt fuera de los hilos de Tomcat: pool acotado, con rechazo rápido (503) si se llena
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${auth.hashing.threads:2}") int threads,
+            @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.hashing.timeout-ms:5000}") long timeoutMillis){
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, queueCapacity, timeoutMillis);
+    }
+
     @Bean
-    public BCryptPasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    public FailedLoginCache failedLoginCache(
+            @Value("${auth.failed-login.ttl-seconds:60}") long ttlSeconds,
+            @Value("${auth.failed-login.max-entries:10000}") int maxEntries){
+        return new FailedLoginCache(TimeUnit.SECONDS.toMillis(ttlSeconds), maxEntries);
     }
 
 }
@@ -1,6 +1,8 @@
 package com.example.TaskManager.Security.Config;
 
+import com.example.TaskManager.Monitoring.RequestMonitoringFilter;
 import com.example.TaskManager.Security.Jwt.JwtAuthenticationFilter;
+import com.example.TaskManager.Security.RateLimit.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,6 +25,7 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final AuthenticationProvider authenticationProvider;
 
     @Bean
@@ -38,9 +41,17 @@ public class SecurityConfig {
                         // Rutas públicas
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/error").permitAll()
+                        // Segundo despacho de /api/rx (Flux/Mono). Solo existe si el despacho REQUEST ya pasó
+                        // por el JWT y por estas reglas: un cliente no puede pedir un despacho ASYNC. El JWT no
+                        // se revalida (OncePerRequestFilter salta los despachos async) y, como la sesión es
+                        // STATELESS, el SecurityContext no se guarda entre despachos: sin esta regla se
+                        // rechazaría con 403 una respuesta ya autorizada. El Flux corre con el contexto del
+                        // despacho REQUEST (ver ReactiveTaskControllerTest)
+                        .dispatcherTypeMatchers(jakarta.servlet.DispatcherType.ASYNC).permitAll()
 
                         // Rutas de Admin
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                         // Rutas de Estadísticas (CRUCIAL para que funcionen las preguntas)
                         // "authenticated()" permite que cualquier usuario logueado vea sus datos
@@ -50,7 +61,9 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider)
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // Límite por usuario: necesita el usuario ya autenticado por el JWT
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -66,8 +79,9 @@ public class SecurityConfig {
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("Authorization", "Content-Type"));
         configuration.setAllowCredentials(true);
-        // Exponer Authorization si el frontend lo necesita
-        configuration.setExposedHeaders(List.of("Authorization"));
+        // Exponer Authorization si el frontend lo necesita (Retry-After para los 429, conteo de SQL y Server-Timing)
+        configuration.setExposedHeaders(List.of("Authorization", "Retry-After",
+                RequestMonitoringFilter.STATEMENT_COUNT_HEADER, RequestMonitoringFilter.SERVER_TIMING_HEADER));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,80 @@
+package com.example.TaskManager.Security.Hashing;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pares usuario/contraseña que fallaron hace poco. Un reintento idéntico (credential stuffing,
+ * doble click) se rechaza con un HMAC-SHA256 en vez de otro BCrypt. La contraseña nunca se guarda:
+ * la clave es usuario + HMAC de usuario y contraseña con una llave aleatoria del proceso, así un volcado
+ * de memoria no sirve para un diccionario (un SHA-256 sin sal sí). Las entradas vencen a los ttlMillis.
+ */
+public class FailedLoginCache {
+
+    private final ConcurrentHashMap<String, Long> expiries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+    // Llave del HMAC: nueva en cada arranque, nunca sale del proceso
+    private final SecretKeySpec hmacKey;
+
+    public FailedLoginCache(long ttlMillis, int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hmacKey = new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    public boolean recentlyFailed(String username, CharSequence password, long nowMillis) {
+        String key = key(username, password);
+        Long expiry = expiries.get(key);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry <= nowMillis) {
+            expiries.remove(key, expiry);
+            return false;
+        }
+        return true;
+    }
+
+    public void recordFailure(String username, CharSequence password, long nowMillis) {
+        if (expiries.size() >= maxEntries) {
+            expiries.values().removeIf(expiry -> expiry <= nowMillis);
+            if (expiries.size() >= maxEntries) {
+                // Lleno de entradas vigentes (ataque masivo): se descarta todo antes que crecer sin límite
+                expiries.clear();
+            }
+        }
+        expiries.put(key(username, password), nowMillis + ttlMillis);
+    }
+
+    // El usuario se registró o cambió su contraseña: lo que falló antes puede ser válido ahora
+    public void forget(String username) {
+        String prefix = username + ":";
+        expiries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public int size() {
+        return expiries.size();
+    }
+
+    private String key(String username, CharSequence password) {
+        try {
+            // Mac no es thread-safe: uno por llamada
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(hmacKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            byte[] hash = mac.doFinal(String.valueOf(password).getBytes(StandardCharsets.UTF_8));
+            return username + ":" + HexFormat.of().formatHex(hash);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
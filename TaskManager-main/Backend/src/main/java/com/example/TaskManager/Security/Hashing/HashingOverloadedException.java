@@ -0,0 +1,9 @@
+package com.example.TaskManager.Security.Hashing;
+
+// El pool de hashing está lleno (o no respondió a tiempo): se responde 503 en vez de encolar más
+public class HashingOverloadedException extends RuntimeException {
+
+    public HashingOverloadedException(String message) {
+        super(message);
+    }
+}
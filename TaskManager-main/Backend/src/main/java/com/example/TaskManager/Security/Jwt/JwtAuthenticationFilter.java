@@ -1,5 +1,6 @@
 package com.example.TaskManager.Security.Jwt;
 
+import com.example.TaskManager.Monitoring.RequestMonitor;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,10 +28,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
 
+        // Fase auth del Server-Timing: validar el token y cargar el usuario (no incluye el resto de la cadena).
+        // Se cierra también si la validación lanza (token malformado, usuario inexistente)
+        long authStart = RequestMonitor.start();
+        try {
+            authenticate(request);
+        } finally {
+            RequestMonitor.stop(RequestMonitor.Phase.AUTH, authStart);
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(HttpServletRequest request) {
         final String token = getTokenFromRequest(request);
 
         if (token == null){
-            filterChain.doFilter(request, response);
             return;
         }
 
@@ -49,10 +62,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+
+                if (userDetails.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()))) {
+                    RequestMonitor.adminRequest();
+                }
             }
         }
-
-        filterChain.doFilter(request, response);
     }
 
     private String getTokenFromRequest(HttpServletRequest request) {
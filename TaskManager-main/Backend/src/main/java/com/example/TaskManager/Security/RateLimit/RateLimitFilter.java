@@ -0,0 +1,103 @@
+package com.example.TaskManager.Security.RateLimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Control de admisión por usuario (subject del JWT) con token bucket.
+ * Va justo después de JwtAuthenticationFilter: si el usuario agotó su cupo se responde 429
+ * con Retry-After de inmediato, en vez de dejar la petición esperando por una conexión del pool.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Sobre este tamaño se limpian los buckets llenos (usuarios inactivos)
+    private static final int MAX_IDLE_BUCKETS = 10_000;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final double capacity;
+    private final double refillPerSecond;
+    private final double statsCost;
+    private final double adminCost;
+    private final double defaultCost;
+
+    public RateLimitFilter(
+            @Value("${ratelimit.capacity:60}") double capacity,
+            @Value("${ratelimit.refill-per-second:10}") double refillPerSecond,
+            @Value("${ratelimit.cost.stats:5}") double statsCost,
+            @Value("${ratelimit.cost.admin:3}") double adminCost,
+            @Value("${ratelimit.cost.default:1}") double defaultCost) {
+        // Un costo mayor que la capacidad nunca se admitiría, pero el 429 diría que reintente (Retry-After finito)
+        if (Math.max(statsCost, Math.max(adminCost, defaultCost)) > capacity) {
+            throw new IllegalArgumentException("ratelimit.cost.* no puede superar ratelimit.capacity (" + capacity
+                    + "): stats=" + statsCost + ", admin=" + adminCost + ", default=" + defaultCost);
+        }
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.statsCost = statsCost;
+        this.adminCost = adminCost;
+        this.defaultCost = defaultCost;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+        // Sin usuario autenticado (login, register, preflight) no se limita aquí
+        if (auth == null || auth.getName() == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = tryConsume(auth.getName(), request.getServletPath());
+
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Descuenta del cupo del usuario lo que cuesta path; devuelve 0 si alcanzó o los nanos a esperar si no.
+     * También lo usa BatchDispatcher: cada sub-petición de /api/batch paga como si llegara suelta.
+     */
+    public long tryConsume(String username, String path) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.computeIfAbsent(username, k -> new TokenBucket(capacity, refillPerSecond, now));
+        long waitNanos = bucket.tryConsume(costOf(path), now);
+        if (waitNanos == 0 && buckets.size() > MAX_IDLE_BUCKETS) {
+            buckets.values().removeIf(b -> b.isFull(now));
+        }
+        return waitNanos;
+    }
+
+    private double costOf(String path) {
+        // Una consulta GraphQL puede pedir varias estadísticas de una vez: paga al menos como una
+        if (path.startsWith("/api/stats/") || path.startsWith("/api/rx/stats/") || path.startsWith("/graphql")) {
+            return statsCost;
+        }
+        if (path.startsWith("/api/admin/")) {
+            return adminCost;
+        }
+        return defaultCost;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.TaskManager.Security.RateLimit;
+
+/**
+ * Token bucket simple y thread-safe.
+ * Se rellena de forma continua a razón de refillPerSecond tokens/segundo hasta capacity.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Intenta consumir cost tokens.
+     * @return 0 si se consumieron; si no, los nanosegundos que faltan para tener suficientes tokens
+     */
+    public synchronized long tryConsume(double cost, long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= cost) {
+            tokens -= cost;
+            return 0;
+        }
+        return (long) Math.ceil((cost - tokens) / refillPerNano);
+    }
+
+    /** true si el bucket está lleno (nadie lo ha usado hace rato) y se puede descartar */
+    public synchronized boolean isFull(long nowNanos) {
+        refill(nowNanos);
+        return tokens >= capacity;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
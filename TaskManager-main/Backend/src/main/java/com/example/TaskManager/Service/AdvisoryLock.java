@@ -0,0 +1,90 @@
+package com.example.TaskManager.Service;
+
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Lock de PostgreSQL (pg_try_advisory_lock) para trabajos que solo debe correr un nodo a la vez.
+ * El lock es de sesión: se mantiene una conexión dedicada mientras dura el trabajo y se libera
+ * al cerrar el handle (o solo, si el nodo muere y se corta la conexión).
+ */
+@Component
+public class AdvisoryLock {
+
+    private final DataSource dataSource;
+
+    public AdvisoryLock(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public Optional<Handle> tryAcquire(long key) {
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(true);
+            try (PreparedStatement ps = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                ps.setLong(1, key);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next() && rs.getBoolean(1)) {
+                        return Optional.of(new Handle(connection, key));
+                    }
+                }
+            }
+            connection.close();
+            return Optional.empty();
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw new IllegalStateException("No se pudo pedir el advisory lock " + key, e);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // la conexión ya no sirve; cerrarla libera el lock igual
+            }
+        }
+    }
+
+    public static final class Handle implements AutoCloseable {
+
+        private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+        private final Connection connection;
+        private final long key;
+
+        private Handle(Connection connection, long key) {
+            this.connection = connection;
+            this.key = key;
+        }
+
+        // false si la sesión se cortó: PostgreSQL ya liberó el lock y otro nodo pudo tomarlo
+        public boolean isValid() {
+            try {
+                return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void close() {
+            try (PreparedStatement ps = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                ps.setLong(1, key);
+                ps.execute();
+            } catch (SQLException ignored) {
+                // si falla, el lock se libera al cerrar la sesión
+            } finally {
+                closeQuietly(connection);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.TaskManager.Service;
+
+import com.example.TaskManager.DTO.DispatchCandidateProjection;
+import com.example.TaskManager.DTO.DispatchRequestDTO;
+import com.example.TaskManager.DTO.DispatchResultDTO;
+import com.example.TaskManager.Event.TaskChangedEvent;
+import com.example.TaskManager.Repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reparto automático de tareas pendientes al usuario más cercano a su sector.
+ * Una sola consulta espacial trae, por tarea, sus usuarios candidatos ordenados por distancia;
+ * la asignación (respetando el tope por usuario) se decide en memoria y se escribe en un único batch.
+ */
+@Service
+public class DispatchService {
+
+    static final int DEFAULT_MAX_PER_USER = 10;
+
+    private final TaskRepository taskRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int candidatesPerTask;
+
+    public DispatchService(TaskRepository taskRepository,
+                           JdbcTemplate jdbcTemplate,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${dispatch.candidates-per-task:25}") int candidatesPerTask) {
+        this.taskRepository = taskRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.candidatesPerTask = candidatesPerTask;
+    }
+
+    @Transactional
+    public DispatchResultDTO dispatch(DispatchRequestDTO request) {
+        int maxPerUser = request.getMaxPerUser() != null ? request.getMaxPerUser() : DEFAULT_MAX_PER_USER;
+        if (maxPerUser <= 0) {
+            throw new IllegalArgumentException("maxPerUser debe ser mayor a 0");
+        }
+
+        List<DispatchCandidateProjection> candidates;
+        Set<Long> requested = new LinkedHashSet<>();
+        if (request.getTaskIds() != null && !request.getTaskIds().isEmpty()) {
+            requested.addAll(request.getTaskIds());
+            candidates = taskRepository.dispatchCandidatesForTasks(requested, candidatesPerTask);
+        } else if (request.getSectorId() != null) {
+            candidates = taskRepository.dispatchCandidatesForSector(request.getSectorId(), candidatesPerTask);
+        } else {
+            throw new IllegalArgumentException("Se requiere taskIds o sectorId");
+        }
+
+        // Greedy global: los pares vienen ordenados por distancia, así cada tarea queda con el usuario
+        // más cercano que aún tenga cupo
+        Map<Long, Integer> load = new HashMap<>();
+        Set<Long> assignedTasks = new HashSet<>();
+        List<DispatchResultDTO.Assignment> assignments = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Long> changedTaskIds = new ArrayList<>();
+        Set<Long> changedSectorIds = new HashSet<>();
+        for (DispatchCandidateProjection c : candidates) {
+            requested.add(c.getTaskId());
+            if (assignedTasks.contains(c.getTaskId()) || load.getOrDefault(c.getUserId(), 0) >= maxPerUser) {
+                continue;
+            }
+            assignedTasks.add(c.getTaskId());
+            load.merge(c.getUserId(), 1, Integer::sum);
+            assignments.add(new DispatchResultDTO.Assignment(c.getTaskId(), c.getUserId(), c.getMeters()));
+            if (!c.getUserId().equals(c.getCurrentUserId())) {
+                updates.add(new Object[]{c.getUserId(), c.getTaskId()});
+                changedTaskIds.add(c.getTaskId());
+                changedSectorIds.add(c.getSectorId());
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE task SET user_id = ? WHERE id = ?", updates);
+            eventPublisher.publishEvent(TaskChangedEvent.updated(changedTaskIds, changedSectorIds));
+        }
+
+        // Pedidas pero sin asignar: terminadas, sin sector, inexistentes o sin usuario con cupo
+        List<Long> unassigned = requested.stream().filter(id -> !assignedTasks.contains(id)).toList();
+        return DispatchResultDTO.builder()
+                .assignments(assignments)
+                .reassigned(updates.size())
+                .unassigned(unassigned)
+                .build();
+    }
+}
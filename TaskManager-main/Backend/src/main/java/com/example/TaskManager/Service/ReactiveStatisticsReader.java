@@ -0,0 +1,130 @@
+package com.example.TaskManager.Service;
+
+import com.example.TaskManager.Config.ReactiveDatabase;
+import com.example.TaskManager.DTO.DistanceBandDTO;
+import com.example.TaskManager.DTO.SectorCountProjection;
+import com.example.TaskManager.DTO.SectorDistanceCountProjection;
+import com.example.TaskManager.DTO.TaskDTO;
+import com.example.TaskManager.DTO.UserSectorCountProjection;
+import com.example.TaskManager.Repository.TaskRepository;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Las consultas de StatisticsController sobre R2DBC (/api/rx/stats). El SQL es el de TaskRepository;
+ * las filas se leen a clases propias que implementan las mismas proyecciones, así el JSON no cambia.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveStatisticsReader {
+
+    private final ReactiveDatabase database;
+    private final ReactiveTaskReader taskReader;
+
+    @Value
+    static class SectorCount implements SectorCountProjection {
+        Long sectorId;
+        String sectorName;
+        Long total;
+    }
+
+    @Value
+    static class SectorDistanceCount implements SectorDistanceCountProjection {
+        Long sectorId;
+        String sectorName;
+        Double meters;
+        Long total;
+    }
+
+    @Value
+    static class UserSectorCount implements UserSectorCountProjection {
+        Long userId;
+        String username;
+        Long sectorId;
+        String sectorName;
+        Long total;
+    }
+
+    public Flux<SectorCountProjection> countCompletedBySectorForUser(Long userId) {
+        return database.client().sql(TaskRepository.COMPLETED_BY_SECTOR_FOR_USER_SQL)
+                .bind("userId", userId)
+                .map(ReactiveStatisticsReader::sectorCount)
+                .all();
+    }
+
+    public Mono<TaskDTO> nearestPendingTaskForUser(Long userId) {
+        return taskReader.findNearestPending(userId);
+    }
+
+    public Mono<SectorCountProjection> topCompletedSectorNearUser(Long userId, double distanceInMeters) {
+        return database.client().sql(TaskRepository.TOP_COMPLETED_SECTOR_NEAR_USER_SQL)
+                .bind("userId", userId)
+                .bind("distanceInMeters", distanceInMeters)
+                .map(ReactiveStatisticsReader::sectorCount)
+                .one();
+    }
+
+    public Mono<Double> avgDistanceCompletedTasksForUser(Long userId) {
+        // AVG sin filas devuelve NULL: Mono vacío, igual que el null del endpoint servlet
+        return database.client().sql(TaskRepository.AVG_DISTANCE_COMPLETED_FOR_USER_SQL)
+                .bind("userId", userId)
+                .map(row -> toDouble(row.get(0, Number.class)))
+                .one()
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    public Mono<List<DistanceBandDTO>> completedByDistanceBand(Long userId, List<Double> radiiInMeters) {
+        return database.client().sql(TaskRepository.COMPLETED_BY_SECTOR_WITH_DISTANCE_FOR_USER_SQL)
+                .bind("userId", userId)
+                .map(ReactiveStatisticsReader::sectorDistanceCount)
+                .all()
+                .collectList()
+                .map(rows -> StatisticsServiceImpl.toDistanceBands(rows, radiiInMeters));
+    }
+
+    public Flux<SectorCountProjection> pendingTasksBySector() {
+        return database.client().sql(TaskRepository.PENDING_BY_SECTOR_SQL)
+                .map(ReactiveStatisticsReader::sectorCount)
+                .all();
+    }
+
+    public Flux<UserSectorCountProjection> completedTasksByUserAndSector() {
+        return database.client().sql(TaskRepository.COMPLETED_BY_USER_AND_SECTOR_SQL)
+                .map(row -> (UserSectorCountProjection) new UserSectorCount(
+                        toLong(row.get("userId", Number.class)),
+                        row.get("username", String.class),
+                        toLong(row.get("sectorId", Number.class)),
+                        row.get("sectorName", String.class),
+                        toLong(row.get("total", Number.class))))
+                .all();
+    }
+
+    static SectorCountProjection sectorCount(Readable row) {
+        return new SectorCount(
+                toLong(row.get("sectorId", Number.class)),
+                row.get("sectorName", String.class),
+                toLong(row.get("total", Number.class)));
+    }
+
+    static SectorDistanceCount sectorDistanceCount(Readable row) {
+        return new SectorDistanceCount(
+                toLong(row.get("sectorId", Number.class)),
+                row.get("sectorName", String.class),
+                toDouble(row.get("meters", Number.class)),
+                toLong(row.get("total", Number.class)));
+    }
+
+    private static Long toLong(Number value) {
+        return value == null ? null : value.longValue();
+    }
+
+    private static Double toDouble(Number value) {
+        return value == null ? null : value.doubleValue();
+    }
+}
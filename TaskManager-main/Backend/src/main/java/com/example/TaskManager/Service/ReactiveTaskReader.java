@@ -0,0 +1,90 @@
+package com.example.TaskManager.Service;
+
+import com.example.TaskManager.Config.ReactiveDatabase;
+import com.example.TaskManager.DTO.TaskDTO;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Listas de tareas por usuario sobre R2DBC (/api/rx). Mismas columnas que TaskMapper.toDto,
+ * con el sector en el mismo SELECT.
+ *
+ * Las filas se piden al servidor de a FETCH_SIZE (cursor del driver) según la demanda del
+ * suscriptor: un cliente lento frena la lectura en vez de acumular la lista completa en memoria.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveTaskReader {
+
+    static final int FETCH_SIZE = 256;
+
+    public enum Filter {
+        ALL(""),
+        FINISHED(" AND t.finished = true"),
+        UNFINISHED(" AND t.finished = false"),
+        IMPORTANT(" AND t.important = true");
+
+        private final String condition;
+
+        Filter(String condition) {
+            this.condition = condition;
+        }
+    }
+
+    private static final String TASK_COLUMNS = """
+            SELECT t.id, t.title, t.description, t.due_date, t.finished, t.important, t.user_id,
+                   s.id AS sector_id, s.name AS sector_name
+            """;
+
+    private final ReactiveDatabase database;
+
+    public Flux<TaskDTO> findByUser(Long userId, Filter filter) {
+        return database.client()
+                .sql(TASK_COLUMNS + """
+                        FROM task t
+                        LEFT JOIN sector s ON s.id = t.sector_id
+                        WHERE t.user_id = :userId""" + filter.condition + """
+
+                        ORDER BY t.due_date ASC, t.id ASC
+                        """)
+                .bind("userId", userId)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveTaskReader::toDto)
+                .all();
+    }
+
+    // Misma consulta que TaskRepository.findNearestPendingTaskForUser, con el sector ya unido
+    public Mono<TaskDTO> findNearestPending(Long userId) {
+        return database.client()
+                .sql(TASK_COLUMNS + """
+                        FROM task t
+                        JOIN sector s ON t.sector_id = s.id
+                        LEFT JOIN user_sector_distance d ON d.user_id = t.user_id AND d.sector_id = t.sector_id
+                        WHERE t.user_id = :userId AND t.finished = false
+                        ORDER BY d.meters ASC
+                        LIMIT 1
+                        """)
+                .bind("userId", userId)
+                .map(ReactiveTaskReader::toDto)
+                .one();
+    }
+
+    static TaskDTO toDto(Readable row) {
+        TaskDTO dto = new TaskDTO();
+        dto.setId(row.get("id", Long.class));
+        dto.setTitle(row.get("title", String.class));
+        dto.setDescription(row.get("description", String.class));
+        dto.setDueDate(row.get("due_date", LocalDate.class));
+        dto.setFinished(Boolean.TRUE.equals(row.get("finished", Boolean.class)));
+        dto.setImportant(Boolean.TRUE.equals(row.get("important", Boolean.class)));
+        dto.setUserId(row.get("user_id", Long.class));
+        dto.setSectorId(row.get("sector_id", Long.class));
+        dto.setSectorName(row.get("sector_name", String.class));
+        return dto;
+    }
+}
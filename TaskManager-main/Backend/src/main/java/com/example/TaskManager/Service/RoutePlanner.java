@@ -0,0 +1,156 @@
+package com.example.TaskManager.Service;
+
+/**
+ * Orden de visita corto para una lista de puntos, partiendo desde un origen fijo (recorrido abierto).
+ * Vecino más cercano como solución inicial + mejoras 2-opt sobre una matriz de distancias
+ * precalculada, hasta que no haya mejoras o se acabe el presupuesto de tiempo.
+ *
+ * La matriz usa una proyección equirectangular local (metros planos): a escala de ciudad el error
+ * frente a haversine es despreciable y evita ~n²/2 llamadas trigonométricas.
+ */
+public final class RoutePlanner {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private RoutePlanner() {
+    }
+
+    /**
+     * @param originLat   latitud de partida
+     * @param originLon   longitud de partida
+     * @param lats        latitudes de los puntos a visitar
+     * @param lons        longitudes de los puntos a visitar
+     * @param budgetNanos tiempo máximo para la fase de mejora
+     * @return índices de lats/lons en orden de visita
+     */
+    public static int[] plan(double originLat, double originLon, double[] lats, double[] lons, long budgetNanos) {
+        int n = lats.length;
+        if (n == 0) {
+            return new int[0];
+        }
+
+        // Nodo 0 = origen, nodo i+1 = punto i
+        double[] nodeLat = new double[n + 1];
+        double[] nodeLon = new double[n + 1];
+        nodeLat[0] = originLat;
+        nodeLon[0] = originLon;
+        System.arraycopy(lats, 0, nodeLat, 1, n);
+        System.arraycopy(lons, 0, nodeLon, 1, n);
+
+        double[][] dist = distanceMatrix(nodeLat, nodeLon);
+        int[] route = nearestNeighbor(dist);
+        twoOpt(route, dist, System.nanoTime() + budgetNanos);
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = route[i + 1] - 1;
+        }
+        return order;
+    }
+
+    /** Largo total del recorrido (en metros) desde el origen siguiendo order. */
+    public static double length(double originLat, double originLon, double[] lats, double[] lons, int[] order) {
+        double total = 0;
+        double lat = originLat;
+        double lon = originLon;
+        for (int i : order) {
+            total += haversine(lat, lon, lats[i], lons[i]);
+            lat = lats[i];
+            lon = lons[i];
+        }
+        return total;
+    }
+
+    public static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static double[][] distanceMatrix(double[] lat, double[] lon) {
+        int n = lat.length;
+        double metersPerRad = EARTH_RADIUS_METERS;
+        double cosLat = Math.cos(Math.toRadians(lat[0]));
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = Math.toRadians(lon[i]) * cosLat * metersPerRad;
+            y[i] = Math.toRadians(lat[i]) * metersPerRad;
+        }
+        double[][] dist = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            double[] row = dist[i];
+            for (int j = i + 1; j < n; j++) {
+                double dx = x[i] - x[j];
+                double dy = y[i] - y[j];
+                double d = Math.sqrt(dx * dx + dy * dy);
+                row[j] = d;
+                dist[j][i] = d;
+            }
+        }
+        return dist;
+    }
+
+    static int[] nearestNeighbor(double[][] dist) {
+        int n = dist.length;
+        int[] route = new int[n];
+        boolean[] visited = new boolean[n];
+        visited[0] = true;
+        for (int pos = 1; pos < n; pos++) {
+            int current = route[pos - 1];
+            int best = -1;
+            double bestDist = Double.MAX_VALUE;
+            for (int candidate = 1; candidate < n; candidate++) {
+                if (!visited[candidate] && dist[current][candidate] < bestDist) {
+                    bestDist = dist[current][candidate];
+                    best = candidate;
+                }
+            }
+            route[pos] = best;
+            visited[best] = true;
+        }
+        return route;
+    }
+
+    // 2-opt para recorrido abierto: route[0] (origen) queda fijo y el último tramo no vuelve al inicio
+    static void twoOpt(int[] route, double[][] dist, long deadlineNanos) {
+        int n = route.length;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int i = 0; i < n - 2; i++) {
+                if (System.nanoTime() > deadlineNanos) {
+                    return;
+                }
+                double[] fromA = dist[route[i]];
+                int b = route[i + 1];
+                double[] fromB = dist[b];
+                for (int j = i + 2; j < n; j++) {
+                    int c = route[j];
+                    // Invertir route[i+1..j]: se cambian las aristas (a,b) y (c,d) por (a,c) y (b,d)
+                    double delta = fromA[c] - fromA[b];
+                    if (j + 1 < n) {
+                        int d = route[j + 1];
+                        delta += fromB[d] - dist[c][d];
+                    }
+                    if (delta < -1e-9) {
+                        reverse(route, i + 1, j);
+                        b = route[i + 1];
+                        fromB = dist[b];
+                        improved = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void reverse(int[] route, int from, int to) {
+        while (from < to) {
+            int tmp = route[from];
+            route[from++] = route[to];
+            route[to--] = tmp;
+        }
+    }
+}
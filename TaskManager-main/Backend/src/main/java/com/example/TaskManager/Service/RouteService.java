@@ -0,0 +1,90 @@
+package com.example.TaskManager.Service;
+
+import com.example.TaskManager.DTO.RouteDTO;
+import com.example.TaskManager.DTO.TaskDTO;
+import com.example.TaskManager.Entity.Sector;
+import com.example.TaskManager.Entity.Task;
+import com.example.TaskManager.Entity.User;
+import com.example.TaskManager.Mapper.TaskMapper;
+import com.example.TaskManager.Repository.TaskRepository;
+import com.example.TaskManager.Repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ruta de visita de las tareas pendientes de un usuario, partiendo desde su ubicación.
+ * Las tareas de un mismo sector se visitan juntas (es el mismo punto), así la ruta
+ * se calcula sobre sectores distintos y no sobre cada tarea.
+ */
+@Service
+public class RouteService {
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TaskMapper taskMapper;
+    private final long budgetNanos;
+
+    public RouteService(TaskRepository taskRepository,
+                        UserRepository userRepository,
+                        TaskMapper taskMapper,
+                        @Value("${route.time-budget-ms:40}") long budgetMillis) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.taskMapper = taskMapper;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    }
+
+    public Optional<RouteDTO> routeForUser(Long userId) {
+        Optional<User> userOpt = userRepository.findById(userId);
+        if (userOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        User user = userOpt.get();
+
+        // Agrupar por sector; las tareas sin sector (sin ubicación) van al final
+        Map<Long, List<Task>> bySector = new LinkedHashMap<>();
+        Map<Long, Sector> sectors = new LinkedHashMap<>();
+        List<Task> withoutLocation = new ArrayList<>();
+        for (Task task : taskRepository.findPendingWithSectorByUserId(userId)) {
+            Sector sector = task.getSector();
+            if (sector == null || sector.getLocation() == null) {
+                withoutLocation.add(task);
+            } else {
+                bySector.computeIfAbsent(sector.getId(), k -> new ArrayList<>()).add(task);
+                sectors.putIfAbsent(sector.getId(), sector);
+            }
+        }
+
+        List<Sector> stops = new ArrayList<>(sectors.values());
+        double[] lats = new double[stops.size()];
+        double[] lons = new double[stops.size()];
+        for (int i = 0; i < stops.size(); i++) {
+            lats[i] = stops.get(i).getLocation().getY();
+            lons[i] = stops.get(i).getLocation().getX();
+        }
+
+        // Sin ubicación del usuario se parte desde el primer sector
+        double originLat = user.getLocation() != null ? user.getLocation().getY() : (lats.length > 0 ? lats[0] : 0);
+        double originLon = user.getLocation() != null ? user.getLocation().getX() : (lons.length > 0 ? lons[0] : 0);
+
+        int[] order = RoutePlanner.plan(originLat, originLon, lats, lons, budgetNanos);
+
+        List<TaskDTO> tasks = new ArrayList<>();
+        for (int i : order) {
+            bySector.get(stops.get(i).getId()).forEach(t -> tasks.add(taskMapper.toDto(t)));
+        }
+        withoutLocation.forEach(t -> tasks.add(taskMapper.toDto(t)));
+
+        return Optional.of(RouteDTO.builder()
+                .tasks(tasks)
+                .totalMeters(RoutePlanner.length(originLat, originLon, lats, lons, order))
+                .build());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.TaskManager.Service;
+
+import com.example.TaskManager.DTO.DistanceBandDTO;
+import com.example.TaskManager.DTO.SectorCountProjection;
+import com.example.TaskManager.DTO.TaskDTO;
+import com.example.TaskManager.DTO.UserSectorCountProjection;
+
+import java.util.List;
+
+public interface StatisticsService {
+
+    List<SectorCountProjection> countCompletedBySectorForUser(Long userId);
+
+    TaskDTO nearestPendingTaskForUser(Long userId);
+
+    SectorCountProjection topCompletedSectorNearUser(Long userId, double distanceInMeters);
+
+    Double avgDistanceCompletedTasksForUser(Long userId);
+
+    // Una banda por radio (acumulativa, como top-sector-2km / 5km), ordenadas de menor a mayor
+    List<DistanceBandDTO> completedByDistanceBand(Long userId, List<Double> radiiInMeters);
+
+    List<SectorCountProjection> pendingTasksBySector();
+
+    List<UserSectorCountProjection> completedTasksByUserAndSector();
+}
@@ -0,0 +1,102 @@
+package com.example.TaskManager.Service;
+
+import com.example.TaskManager.DTO.DistanceBandDTO;
+import com.example.TaskManager.DTO.SectorCountProjection;
+import com.example.TaskManager.DTO.SectorDistanceCountProjection;
+import com.example.TaskManager.DTO.TaskDTO;
+import com.example.TaskManager.DTO.UserSectorCountProjection;
+import com.example.TaskManager.Mapper.TaskMapper;
+import com.example.TaskManager.Repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Estadísticas sobre TaskRepository con single-flight delante de cada consulta:
+ * las peticiones idénticas que llegan al mismo tiempo (p. ej. todos los dashboards al inicio del turno)
+ * comparten una sola ejecución en la base de datos.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatisticsServiceImpl implements StatisticsService {
+
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+
+    // Globales: una sola clave cada una
+    private final SingleFlight<String, List<SectorCountProjection>> pendingBySectorFlight = new SingleFlight<>();
+    private final SingleFlight<String, List<UserSectorCountProjection>> completedByUserAndSectorFlight = new SingleFlight<>();
+
+    // Por usuario: la clave es el userId (y el radio cuando aplica)
+    private final SingleFlight<Long, List<SectorCountProjection>> completedBySectorFlight = new SingleFlight<>();
+    private final SingleFlight<Long, TaskDTO> nearestPendingFlight = new SingleFlight<>();
+    private final SingleFlight<String, SectorCountProjection> topSectorFlight = new SingleFlight<>();
+    private final SingleFlight<Long, Double> avgDistanceFlight = new SingleFlight<>();
+    private final SingleFlight<Long, List<SectorDistanceCountProjection>> sectorDistanceFlight = new SingleFlight<>();
+
+    @Override
+    public List<SectorCountProjection> countCompletedBySectorForUser(Long userId) {
+        return completedBySectorFlight.execute(userId, () -> taskRepository.countCompletedBySectorForUser(userId));
+    }
+
+    @Override
+    public TaskDTO nearestPendingTaskForUser(Long userId) {
+        // Se comparte el DTO (no la entidad) para no tocar relaciones lazy desde otros hilos
+        return nearestPendingFlight.execute(userId,
+                () -> taskMapper.toDto(taskRepository.findNearestPendingTaskForUser(userId)));
+    }
+
+    @Override
+    public SectorCountProjection topCompletedSectorNearUser(Long userId, double distanceInMeters) {
+        return topSectorFlight.execute(userId + ":" + distanceInMeters,
+                () -> taskRepository.topCompletedSectorNearUser(userId, distanceInMeters));
+    }
+
+    @Override
+    public Double avgDistanceCompletedTasksForUser(Long userId) {
+        return avgDistanceFlight.execute(userId, () -> taskRepository.avgDistanceCompletedTasksForUser(userId));
+    }
+
+    @Override
+    public List<DistanceBandDTO> completedByDistanceBand(Long userId, List<Double> radiiInMeters) {
+        // Una consulta (sectores con tareas completadas + distancia); cada banda filtra ese resultado
+        List<SectorDistanceCountProjection> rows = sectorDistanceFlight.execute(userId,
+                () -> taskRepository.completedBySectorWithDistanceForUser(userId));
+
+        return toDistanceBands(rows, radiiInMeters);
+    }
+
+    // También lo usa ReactiveStatisticsReader: las bandas se arman igual venga la fila de JDBC o de R2DBC
+    static List<DistanceBandDTO> toDistanceBands(List<? extends SectorDistanceCountProjection> rows,
+                                                 List<Double> radiiInMeters) {
+        return radiiInMeters.stream()
+                .distinct()
+                .sorted()
+                .map(radius -> {
+                    List<SectorDistanceCountProjection> sectors = rows.stream()
+                            .filter(r -> r.getMeters() <= radius)
+                            .sorted(Comparator.comparing(SectorDistanceCountProjection::getTotal).reversed())
+                            .map(SectorDistanceCountProjection.class::cast)
+                            .toList();
+                    long total = sectors.stream().mapToLong(SectorDistanceCountProjection::getTotal).sum();
+                    return DistanceBandDTO.builder()
+                            .radiusMeters(radius)
+                            .total(total)
+                            .sectors(sectors)
+                            .build();
+                })
+                .toList();
+    }
+
+    @Override
+    public List<SectorCountProjection> pendingTasksBySector() {
+        return pendingBySectorFlight.execute("pending-by-sector", taskRepository::pendingTasksBySector);
+    }
+
+    @Override
+    public List<UserSectorCountProjection> completedTasksByUserAndSector() {
+        return completedByUserAndSectorFlight.execute("completed-by-user-and-sector", taskRepository::completedTasksByUserAndSector);
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.TaskManager.Service;
+
+import com.example.TaskManager.DTO.ArchivedIdProjection;
+import com.example.TaskManager.DTO.TaskDTO;
+import com.example.TaskManager.DTO.TaskPageDTO;
+import com.example.TaskManager.Entity.TaskArchive;
+import com.example.TaskManager.Event.TaskChangedEvent;
+import com.example.TaskManager.Repository.TaskArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Archivado de tareas terminadas antiguas: las mueve de task a task_archive por tramos chicos
+ * (keyset por id), cada uno en su propia transacción corta y con una pausa entre tramos para
+ * no competir con el tráfico normal. Solo un nodo archiva a la vez (advisory lock).
+ * El historial archivado se lee con findArchived (GET /api/tasks/archive).
+ */
+@Slf4j
+@Service
+public class TaskArchiveService {
+
+    // Clave del advisory lock del archivador (cualquier número fijo, único en la aplicación)
+    static final long ARCHIVER_LOCK_KEY = 0x7461736b4172L;
+
+    private final TaskArchiveRepository taskArchiveRepository;
+    private final AdvisoryLock advisoryLock;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int minAgeDays;
+    private final int chunkSize;
+    private final long pauseMillis;
+
+    public TaskArchiveService(TaskArchiveRepository taskArchiveRepository,
+                              AdvisoryLock advisoryLock,
+                              TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${archive.min-age-days:90}") int minAgeDays,
+                              @Value("${archive.chunk-size:500}") int chunkSize,
+                              @Value("${archive.pause-ms:200}") long pauseMillis) {
+        this.taskArchiveRepository = taskArchiveRepository;
+        this.advisoryLock = advisoryLock;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.minAgeDays = minAgeDays;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Scheduled(initialDelayString = "${archive.initial-delay-ms:60000}", fixedDelayString = "${archive.interval-ms:3600000}")
+    public void scheduledArchive() {
+        try {
+            archiveOldFinished();
+        } catch (RuntimeException e) {
+            log.warn("Error archivando tareas terminadas, se reintenta en la próxima pasada", e);
+        }
+    }
+
+    /**
+     * @return cantidad de tareas archivadas en esta pasada (0 si otro nodo tiene el lock)
+     */
+    public int archiveOldFinished() {
+        Optional<AdvisoryLock.Handle> lock = advisoryLock.tryAcquire(ARCHIVER_LOCK_KEY);
+        if (lock.isEmpty()) {
+            return 0;
+        }
+        try (AdvisoryLock.Handle ignored = lock.get()) {
+            LocalDate before = LocalDate.now().minusDays(minAgeDays);
+            int archived = 0;
+            long afterId = 0L;
+            List<ArchivedIdProjection> chunk;
+            do {
+                chunk = archiveChunk(before, afterId);
+                if (!chunk.isEmpty()) {
+                    archived += chunk.size();
+                    afterId = chunk.stream().mapToLong(ArchivedIdProjection::getId).max().getAsLong();
+                    pause();
+                }
+            } while (chunk.size() == chunkSize);
+            return archived;
+        }
+    }
+
+    // Tramo + su evento en una transacción (el evento va al outbox junto con el movimiento)
+    private List<ArchivedIdProjection> archiveChunk(LocalDate before, long afterId) {
+        List<ArchivedIdProjection> chunk = transactionTemplate.execute(status -> {
+            List<ArchivedIdProjection> moved = taskArchiveRepository.archiveFinishedBefore(before, afterId, chunkSize);
+            if (!moved.isEmpty()) {
+                eventPublisher.publishEvent(TaskChangedEvent.deleted(
+                        moved.stream().map(ArchivedIdProjection::getId).toList(),
+                        moved.stream().map(ArchivedIdProjection::getSectorId).toList()));
+            }
+            return moved;
+        });
+        return chunk != null ? chunk : List.of();
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Cursor = id de la última tarea de la página anterior
+    public TaskPageDTO findArchived(Long userId, String cursor, int limit) {
+        List<TaskArchive> rows = (cursor == null || cursor.isBlank())
+                ? taskArchiveRepository.findByUserIdOrderByIdDesc(userId, Limit.of(limit))
+                : taskArchiveRepository.findByUserIdAndIdLessThanOrderByIdDesc(userId, parseCursor(cursor), Limit.of(limit));
+
+        List<TaskDTO> tasks = rows.stream().map(TaskArchiveService::toDto).toList();
+        String nextCursor = rows.size() == limit ? String.valueOf(rows.get(rows.size() - 1).getId()) : null;
+        return TaskPageDTO.builder()
+                .tasks(tasks)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static Long parseCursor(String cursor) {
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+
+    private static TaskDTO toDto(TaskArchive archive) {
+        return TaskDTO.builder()
+                .id(archive.getId())
+                .title(archive.getTitle())
+                .description(archive.getDescription())
+                .dueDate(archive.getDueDate())
+                .finished(true)
+                .important(archive.isImportant())
+                .userId(archive.getUserId())
+                .sectorId(archive.getSectorId())
+                .build();
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.TaskManager.Service;
 
+import com.example.TaskManager.DTO.NearbyTaskPageDTO;
 import com.example.TaskManager.DTO.TaskDTO;
 import com.example.TaskManager.Entity.Task;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface TaskService {
@@ -26,4 +28,12 @@ public interface TaskService {
     List<TaskDTO> findByUnfinished(Long userId);
     List<TaskDTO> findByImportant(Long userId);
     ResponseEntity<TaskDTO> deleteById(Long id);
+    ResponseEntity<TaskDTO> deleteById(Long id, Long userId);
+
+    // Tareas dentro de radius metros de (lat, lon), por distancia; cursor = nextCursor de la página anterior
+    NearbyTaskPageDTO findNear(double lat, double lon, double radius, boolean finished, String cursor, int limit);
+
+    // Borrados masivos (por tramos); devuelven la cantidad de filas eliminadas
+    int deleteAllById(List<Long> ids);
+    int deleteFinishedBefore(LocalDate before);
 }
@@ -1,28 +1,41 @@
 package com.example.TaskManager.Service;
 
+import com.example.TaskManager.DTO.NearbyTaskPageDTO;
+import com.example.TaskManager.DTO.NearbyTaskProjection;
 import com.example.TaskManager.DTO.TaskDTO;
 import com.example.TaskManager.Entity.Sector;
 import com.example.TaskManager.Entity.Task;
 import com.example.TaskManager.Entity.User;
+import com.example.TaskManager.Event.TaskChangedEvent;
 import com.example.TaskManager.Mapper.TaskMapper;
 import com.example.TaskManager.Repository.SectorRepository;
 import com.example.TaskManager.Repository.TaskRepository;
 import com.example.TaskManager.Repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class TaskServiceImpl implements TaskService {
 
+    // Tamaño de cada tramo en los borrados masivos: transacciones cortas, sin bloquear la tabla mucho rato
+    static final int BULK_DELETE_CHUNK_SIZE = 500;
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final SectorRepository sectorRepository;
     private final TaskMapper taskMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public List<TaskDTO> getTasksForUser(Long userId) {
@@ -32,6 +45,7 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional
     public TaskDTO createTask(TaskDTO dto) {
         User user = userRepository.findById(dto.getUserId())
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
@@ -44,10 +58,12 @@ public class TaskServiceImpl implements TaskService {
 
         Task task = taskMapper.toEntity(dto, user, sector);
         Task saved = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.created(saved));
         return taskMapper.toDto(saved);
     }
 
     @Override
+    @Transactional
     public TaskDTO updateTask(Long id, TaskDTO dto) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Tarea no encontrada"));
@@ -61,19 +77,26 @@ public class TaskServiceImpl implements TaskService {
                     .orElseThrow(() -> new RuntimeException("Sector no encontrado"));
         }
 
+        Long previousSectorId = TaskChangedEvent.sectorIdOf(task);
         taskMapper.updateEntity(task, dto, user, sector);
         Task saved = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(saved, previousSectorId));
         return taskMapper.toDto(saved);
     }
 
     @Override
+    @Transactional
     public void deleteTask(Long id) {
-        taskRepository.deleteById(id);
+        List<Long> sectorIds = taskRepository.deleteTaskById(id);
+        if (!sectorIds.isEmpty()) {
+            eventPublisher.publishEvent(TaskChangedEvent.deleted(List.of(id), sectorIds));
+        }
     }
 
     // ===== Legacy API used by tests =====
 
     @Override
+    @Transactional
     public ResponseEntity<TaskDTO> create(TaskDTO dto, Long userId) {
         var userOpt = userRepository.findById(userId);
         if (userOpt.isEmpty()) {
@@ -90,6 +113,7 @@ public class TaskServiceImpl implements TaskService {
 
         Task entity = taskMapper.toEntity(dto, userOpt.get(), sector);
         Task saved = taskRepository.save(entity);
+        eventPublisher.publishEvent(TaskChangedEvent.created(saved));
         return ResponseEntity.status(HttpStatus.CREATED).body(taskMapper.toDto(saved));
     }
 
@@ -107,6 +131,7 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional
     public ResponseEntity<TaskDTO> update(Task task, Long userId) {
         var userOpt = userRepository.findById(userId);
         if (userOpt.isEmpty()) {
@@ -119,12 +144,16 @@ public class TaskServiceImpl implements TaskService {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
 
+        // La tarea llega armada desde fuera: el sector anterior se lee de la BD antes de guardar
+        Long previousSectorId = taskRepository.findSectorIdById(task.getId());
         task.setUser(userOpt.get());
         Task saved = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(saved, previousSectorId));
         return ResponseEntity.ok(taskMapper.toDto(saved));
     }
 
     @Override
+    @Transactional
     public ResponseEntity<TaskDTO> updateFinishedStatus(Long id) {
         var opt = taskRepository.findById(id);
         if (opt.isEmpty()) {
@@ -133,6 +162,7 @@ public class TaskServiceImpl implements TaskService {
         Task t = opt.get();
         t.setFinished(!t.isFinished());
         Task saved = taskRepository.save(t);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(saved, null));
         return ResponseEntity.ok(taskMapper.toDto(saved));
     }
 
@@ -156,11 +186,84 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     public ResponseEntity<TaskDTO> deleteById(Long id) {
-        var opt = taskRepository.findById(id);
-        if (opt.isEmpty()) {
+        return deleteById(id, null);
+    }
+
+    @Override
+    @Transactional
+    public ResponseEntity<TaskDTO> deleteById(Long id, Long userId) {
+        // Un solo DELETE: si no afectó filas, la tarea no existe (o no es del usuario)
+        List<Long> sectorIds = (userId == null)
+                ? taskRepository.deleteTaskById(id)
+                : taskRepository.deleteTaskByIdAndUserId(id, userId);
+        if (sectorIds.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
-        taskRepository.deleteById(id);
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(List.of(id), sectorIds));
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
-}
\ No newline at end of file
+
+    @Override
+    public NearbyTaskPageDTO findNear(double lat, double lon, double radius, boolean finished, String cursor, int limit) {
+        List<NearbyTaskProjection> tasks;
+        if (cursor == null || cursor.isBlank()) {
+            tasks = taskRepository.findNearPoint(lat, lon, radius, finished, limit);
+        } else {
+            // Cursor "distancia_id": la página sigue justo después de esa fila (sin OFFSET)
+            String[] parts = cursor.split("_", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            tasks = taskRepository.findNearPointAfter(lat, lon, radius, finished,
+                    Double.parseDouble(parts[0]), Long.parseLong(parts[1]), limit);
+        }
+
+        String nextCursor = null;
+        if (tasks.size() == limit) {
+            NearbyTaskProjection last = tasks.get(tasks.size() - 1);
+            nextCursor = last.getDistance() + "_" + last.getId();
+        }
+        return NearbyTaskPageDTO.builder()
+                .tasks(tasks)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    public int deleteAllById(List<Long> ids) {
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += BULK_DELETE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_DELETE_CHUNK_SIZE, ids.size()));
+            deleted += deleteChunk(chunk);
+        }
+        return deleted;
+    }
+
+    @Override
+    public int deleteFinishedBefore(LocalDate before) {
+        // Recorre por keyset (id) y borra cada tramo en su propia transacción
+        int deleted = 0;
+        long afterId = 0L;
+        List<Long> chunk;
+        do {
+            chunk = taskRepository.findFinishedIdsBefore(before, afterId, Limit.of(BULK_DELETE_CHUNK_SIZE));
+            if (!chunk.isEmpty()) {
+                deleted += deleteChunk(chunk);
+                afterId = chunk.get(chunk.size() - 1);
+            }
+        } while (chunk.size() == BULK_DELETE_CHUNK_SIZE);
+        return deleted;
+    }
+
+    // Cada tramo en su propia transacción, junto con su evento en el outbox
+    private int deleteChunk(List<Long> ids) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            List<Long> sectorIds = taskRepository.deleteTasksByIdIn(ids);
+            if (!sectorIds.isEmpty()) {
+                eventPublisher.publishEvent(TaskChangedEvent.deleted(ids, sectorIds));
+            }
+            return sectorIds.size();
+        });
+        return deleted != null ? deleted : 0;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.TaskManager.Service;
+
+import com.example.TaskManager.DTO.TaskChangesDTO;
+import com.example.TaskManager.Mapper.TaskMapper;
+import com.example.TaskManager.Repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sincronización delta de tareas (GET /api/tasks/changes?since=). Cada fila de task lleva change_version
+ * (xid de la transacción que la escribió) y los borrados dejan una lápida en task_tombstone; así el cliente
+ * solo recibe lo creado, modificado o borrado desde su última versión, leído por índice.
+ * Las lápidas se purgan después de sync.tombstone-retention-days: un since anterior a lo purgado
+ * recibe la lista completa.
+ */
+@Slf4j
+@Service
+public class TaskSyncService {
+
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final int retentionDays;
+
+    public TaskSyncService(TaskRepository taskRepository,
+                           TaskMapper taskMapper,
+                           @Value("${sync.tombstone-retention-days:30}") int retentionDays) {
+        this.taskRepository = taskRepository;
+        this.taskMapper = taskMapper;
+        this.retentionDays = retentionDays;
+    }
+
+    @Transactional(readOnly = true)
+    public TaskChangesDTO findChangesSince(Long userId, Long since) {
+        // La marca va antes de leer: lo que se commitee entre medio vuelve en la próxima llamada (a lo más repetido)
+        Long version = taskRepository.changeWatermark();
+        Long horizon = taskRepository.syncHorizon();
+
+        if (since == null || (horizon != null && since <= horizon)) {
+            return TaskChangesDTO.builder()
+                    .version(version)
+                    .full(true)
+                    .changed(taskRepository.findByUser_Id(userId).stream().map(taskMapper::toDto).toList())
+                    .deleted(List.of())
+                    .build();
+        }
+        return TaskChangesDTO.builder()
+                .version(version)
+                .full(false)
+                .changed(taskRepository.findChangedSince(userId, since).stream().map(taskMapper::toDto).toList())
+                .deleted(taskRepository.findTombstonedSince(userId, since))
+                .build();
+    }
+
+    @Scheduled(initialDelayString = "${sync.purge-initial-delay-ms:120000}", fixedDelayString = "${sync.purge-interval-ms:86400000}")
+    public void scheduledPurge() {
+        try {
+            purgeTombstones();
+        } catch (RuntimeException e) {
+            log.warn("Error purgando lápidas de sincronización, se reintenta en la próxima pasada", e);
+        }
+    }
+
+    public int purgeTombstones() {
+        return taskRepository.purgeTombstonesBefore(LocalDate.now().minusDays(retentionDays));
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.TaskManager.Service;
+
+import com.example.TaskManager.Entity.Sector;
+import com.example.TaskManager.Event.InvalidationListener;
+import com.example.TaskManager.Event.TaskChangedEvent;
+import com.example.TaskManager.Repository.SectorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Genera los tiles vectoriales del mapa (ST_AsMVT) y los guarda en un caché LRU acotado.
+ * Cuando cambian tareas solo se invalidan los tiles (de cada zoom) que cubren los sectores afectados,
+ * incluido el sector anterior si la tarea cambió de sector.
+ * Los cambios hechos en otros nodos llegan por InvalidationBus (LISTEN/NOTIFY).
+ */
+@Service
+public class TileService implements InvalidationListener {
+
+    public static final int MAX_ZOOM = 22;
+
+    // Margen (fracción del tile) bajo el cual un punto también se invalida en el tile vecino:
+    // el buffer por defecto de ST_AsMVTGeom (256 de 4096). Cubre puntos justo en el borde (el && de
+    // sectorTile los incluye en ambos tiles) y diferencias de redondeo entre PostGIS y tileOf.
+    static final double EDGE_MARGIN = 256.0 / 4096.0;
+
+    private final SectorRepository sectorRepository;
+    private final Map<TileKey, byte[]> cache;
+
+    // Versión de los datos: sube con cada invalidación. Un tile calculado mientras cambió la versión
+    // se entrega pero no se guarda (podría tener datos de antes del cambio).
+    private final AtomicLong dataVersion = new AtomicLong();
+
+    public TileService(SectorRepository sectorRepository,
+                       @Value("${tiles.cache.max-entries:2000}") int maxEntries) {
+        this.sectorRepository = sectorRepository;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TileKey, byte[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public byte[] getTile(int z, int x, int y) {
+        TileKey key = new TileKey(z, x, y);
+        synchronized (cache) {
+            byte[] cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        long versionBefore = dataVersion.get();
+        byte[] tile = sectorRepository.sectorTile(z, x, y);
+        if (tile == null) {
+            tile = new byte[0];
+        }
+
+        synchronized (cache) {
+            if (dataVersion.get() == versionBefore) {
+                cache.put(key, tile);
+            }
+        }
+        return tile;
+    }
+
+    // Después del commit (o de inmediato si no hubo transacción)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (!event.sectorIds().isEmpty()) {
+            invalidateSectors(event.sectorIds());
+        }
+    }
+
+    // Aviso de otro nodo
+    @Override
+    public void onInvalidate(String entity, Set<Long> ids) {
+        if ("sector".equals(entity)) {
+            invalidateSectors(ids);
+        }
+    }
+
+    @Override
+    public void onInvalidateAll() {
+        invalidateAll();
+    }
+
+    public void invalidateSectors(Collection<Long> sectorIds) {
+        dataVersion.incrementAndGet();
+        for (Sector sector : sectorRepository.findAllById(sectorIds)) {
+            if (sector.getLocation() != null) {
+                invalidatePoint(sector.getLocation().getX(), sector.getLocation().getY());
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        dataVersion.incrementAndGet();
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    // Quita, en cada zoom, los tiles que pueden mostrar el punto (lon/lat en 4326)
+    private void invalidatePoint(double lon, double lat) {
+        synchronized (cache) {
+            for (int z = 0; z <= MAX_ZOOM; z++) {
+                cache.keySet().removeAll(coveringTiles(lon, lat, z));
+            }
+        }
+    }
+
+    // El tile que contiene el punto y, si está a menos de EDGE_MARGIN de un borde, el vecino de ese lado
+    // (hasta 4 tiles en una esquina)
+    static Set<TileKey> coveringTiles(double lon, double lat, int z) {
+        int n = 1 << z;
+        double fx = tileX(lon, n);
+        double fy = tileY(lat, n);
+        int minX = clamp((int) Math.floor(fx - EDGE_MARGIN), n);
+        int maxX = clamp((int) Math.floor(fx + EDGE_MARGIN), n);
+        int minY = clamp((int) Math.floor(fy - EDGE_MARGIN), n);
+        int maxY = clamp((int) Math.floor(fy + EDGE_MARGIN), n);
+        Set<TileKey> tiles = new HashSet<>(4);
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                tiles.add(new TileKey(z, x, y));
+            }
+        }
+        return tiles;
+    }
+
+    static TileKey tileOf(double lon, double lat, int z) {
+        int n = 1 << z;
+        return new TileKey(z, clamp((int) Math.floor(tileX(lon, n)), n), clamp((int) Math.floor(tileY(lat, n)), n));
+    }
+
+    private static double tileX(double lon, int n) {
+        return (lon + 180.0) / 360.0 * n;
+    }
+
+    private static double tileY(double lat, int n) {
+        double latRad = Math.toRadians(lat);
+        return (1.0 - Math.log(Math.tan(latRad) + 1.0 / Math.cos(latRad)) / Math.PI) / 2.0 * n;
+    }
+
+    private static int clamp(int tile, int n) {
+        return Math.min(Math.max(tile, 0), n - 1);
+    }
+
+    record TileKey(int z, int x, int y) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.TaskManager.Service;
+
+import com.example.TaskManager.Event.InvalidationBus;
+import com.example.TaskManager.Repository.UserSectorDistanceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Mantiene la tabla user_sector_distance.
+ * Solo se recalculan las filas del usuario o sector cuya ubicación cambió.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserSectorDistanceService {
+
+    private final UserSectorDistanceRepository distanceRepository;
+    private final InvalidationBus invalidationBus;
+
+    // Llamar cuando se crea un usuario o cambia su location
+    @Transactional
+    public void refreshForUser(Long userId) {
+        distanceRepository.deleteAllForUser(userId);
+        distanceRepository.insertAllForUser(userId);
+        invalidationBus.publish("user", List.of(userId));
+    }
+
+    // Llamar cuando se crea un sector o cambia su location
+    @Transactional
+    public void refreshForSector(Long sectorId) {
+        distanceRepository.deleteAllForSector(sectorId);
+        distanceRepository.insertAllForSector(sectorId);
+        invalidationBus.publish("sector", List.of(sectorId));
+    }
+
+    // Al arrancar se completan los pares que falten (p. ej. datos insertados con schema_final.sql).
+    // Con la tabla al día solo cuesta el anti-join: las distancias se calculan solo para pares nuevos
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void fillMissing() {
+        distanceRepository.insertMissing();
+    }
+}
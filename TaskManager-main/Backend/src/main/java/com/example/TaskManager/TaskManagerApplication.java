@@ -1,10 +1,17 @@
 package com.example.TaskManager;
 
+import com.example.TaskManager.Config.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// El pool R2DBC lo arma Config.ReactiveDatabase: un ConnectionFactory autoconfigurado apagaría el DataSource de JPA
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@EnableScheduling
+@ImportRuntimeHints(NativeHints.class)
 public class TaskManagerApplication {
 
 	public static void main(String[] args) {
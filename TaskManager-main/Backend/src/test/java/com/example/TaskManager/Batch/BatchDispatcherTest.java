@@ -0,0 +1,192 @@
+package com.example.TaskManager.Batch;
+
+import com.example.TaskManager.DTO.BatchRequestDTO;
+import com.example.TaskManager.DTO.BatchResponseDTO;
+import com.example.TaskManager.Security.RateLimit.RateLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletConfig;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.access.WebInvocationPrivilegeEvaluator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class BatchDispatcherTest {
+
+    // Controlador mínimo: un contador que se lee y se incrementa
+    @RestController
+    static class CounterController {
+        static final AtomicInteger COUNTER = new AtomicInteger();
+
+        @GetMapping("/api/counter")
+        public Map<String, Object> get(@RequestParam(defaultValue = "x") String tag) {
+            return Map.of("value", COUNTER.get(), "tag", tag);
+        }
+
+        @PatchMapping("/api/counter/{delta}")
+        public Map<String, Object> add(@PathVariable int delta, @RequestBody(required = false) Map<String, Object> body) {
+            return Map.of("value", COUNTER.addAndGet(delta), "note", body == null ? "" : body.get("note"));
+        }
+
+        @DeleteMapping("/api/counter")
+        public ResponseEntity<Void> fail() {
+            return ResponseEntity.status(409).build();
+        }
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @Import(CounterController.class)
+    static class WebConfig {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WebInvocationPrivilegeEvaluator privilegeEvaluator = mock(WebInvocationPrivilegeEvaluator.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final Authentication user = new UsernamePasswordAuthenticationToken("ana", null,
+            List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    private AnnotationConfigWebApplicationContext context;
+    private BatchDispatcher batchDispatcher;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        CounterController.COUNTER.set(0);
+        MockServletContext servletContext = new MockServletContext();
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(servletContext);
+        context.register(WebConfig.class);
+        context.refresh();
+        DispatcherServlet dispatcherServlet = new DispatcherServlet(context);
+        dispatcherServlet.init(new MockServletConfig(servletContext));
+
+        when(privilegeEvaluator.isAllowed(anyString(), anyString(), anyString(), any())).thenReturn(true);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        batchDispatcher = new BatchDispatcher(dispatcherServlet, objectMapper, transactionManager, privilegeEvaluator,
+                new RateLimitFilter(60, 10, 5, 3, 1), 20, 4, 5000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        batchDispatcher.destroy();
+        context.close();
+    }
+
+    @Test
+    public void BatchDispatcher_execute_readsAfterWriteSeeTheWrite() throws Exception {
+        BatchResponseDTO result = batchDispatcher.execute(BatchRequestDTO.builder().requests(List.of(
+                item("1", "PATCH", "/api/counter/5", "{\"note\":\"hola\"}"),
+                item("2", "GET", "/api/counter?tag=a%20b", null),
+                item("3", null, "/api/counter?tag=c", null),
+                item("4", "GET", "/api/counter", null)
+        )).build(), new MockHttpServletRequest(), user);
+
+        List<BatchResponseDTO.Item> responses = result.getResponses();
+        assertEquals(List.of("1", "2", "3", "4"), responses.stream().map(BatchResponseDTO.Item::getId).toList());
+        assertTrue(responses.stream().allMatch(r -> r.getStatus() == 200));
+        assertEquals(Map.of("value", 5, "note", "hola"), objectMapper.readValue(responses.get(0).getBody(), Map.class));
+        // Las tres lecturas (en paralelo) corren después de la escritura
+        assertEquals(Map.of("value", 5, "tag", "a b"), objectMapper.readValue(responses.get(1).getBody(), Map.class));
+        assertEquals(Map.of("value", 5, "tag", "c"), objectMapper.readValue(responses.get(2).getBody(), Map.class));
+        // El cuerpo viaja como JSON, no como string escapado
+        assertTrue(objectMapper.writeValueAsString(result).contains("\"body\":{"));
+    }
+
+    @Test
+    public void BatchDispatcher_execute_rejectForbiddenAndUnsafePaths() {
+        when(privilegeEvaluator.isAllowed(anyString(), eq("/api/admin/users"), anyString(), any())).thenReturn(false);
+
+        BatchResponseDTO result = batchDispatcher.execute(BatchRequestDTO.builder().requests(List.of(
+                item("admin", "GET", "/api/admin/users", null),
+                item("traversal", "GET", "/api/counter/../admin/users", null),
+                item("nested", "POST", "/api/batch", "{}"),
+                item("async", "GET", "/api/rx/tasks?userId=1", null),
+                item("missing", "GET", "/api/nope", null)
+        )).build(), new MockHttpServletRequest(), user);
+
+        assertEquals(List.of(403, 400, 400, 400, 404),
+                result.getResponses().stream().map(BatchResponseDTO.Item::getStatus).toList());
+    }
+
+    @Test
+    public void BatchDispatcher_execute_transactionalFailure_rollbackAndSkipRest() {
+        BatchResponseDTO result = batchDispatcher.execute(BatchRequestDTO.builder().transactional(true).requests(List.of(
+                item("1", "PATCH", "/api/counter/1", null),
+                item("2", "DELETE", "/api/counter", null),
+                item("3", "PATCH", "/api/counter/1", null)
+        )).build(), new MockHttpServletRequest(), user);
+
+        assertEquals(List.of(200, 409, BatchDispatcher.FAILED_DEPENDENCY),
+                result.getResponses().stream().map(BatchResponseDTO.Item::getStatus).toList());
+        assertEquals(1, CounterController.COUNTER.get());
+        // TransactionTemplate entrega el estado marcado rollback-only y el manager revierte en vez de confirmar
+        ArgumentCaptor<TransactionStatus> status = ArgumentCaptor.forClass(TransactionStatus.class);
+        verify(transactionManager).commit(status.capture());
+        assertTrue(status.getValue().isRollbackOnly());
+    }
+
+    @Test
+    public void BatchDispatcher_execute_transactionalUnexpectedRollback_allFailedDependency() {
+        // Todas respondieron 200, pero un servicio dejó la transacción rollback-only: el commit la revierte
+        doThrow(new UnexpectedRollbackException("rollback-only")).when(transactionManager).commit(any());
+
+        BatchResponseDTO result = batchDispatcher.execute(BatchRequestDTO.builder().transactional(true).requests(List.of(
+                item("1", "PATCH", "/api/counter/1", null),
+                item("2", "GET", "/api/counter", null)
+        )).build(), new MockHttpServletRequest(), user);
+
+        assertEquals(List.of(BatchDispatcher.FAILED_DEPENDENCY, BatchDispatcher.FAILED_DEPENDENCY),
+                result.getResponses().stream().map(BatchResponseDTO.Item::getStatus).toList());
+        assertTrue(result.getResponses().stream().allMatch(r -> r.getBody() == null));
+    }
+
+    @Test
+    public void SubStreams_nonBlockingListeners_rejectWithIllegalState() throws Exception {
+        SubRequest request = new SubRequest(new MockHttpServletRequest(), "GET",
+                UriComponentsBuilder.fromUriString("/api/counter").build(), new byte[0], user);
+        SubResponse response = new SubResponse();
+
+        IllegalStateException read = assertThrows(IllegalStateException.class,
+                () -> request.getInputStream().setReadListener(mock(ReadListener.class)));
+        IllegalStateException write = assertThrows(IllegalStateException.class,
+                () -> response.getOutputStream().setWriteListener(mock(WriteListener.class)));
+        assertNotNull(read.getMessage());
+        assertNotNull(write.getMessage());
+    }
+
+    private BatchRequestDTO.Item item(String id, String method, String path, String body) {
+        try {
+            return new BatchRequestDTO.Item(id, method, path, body == null ? null : objectMapper.readTree(body));
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
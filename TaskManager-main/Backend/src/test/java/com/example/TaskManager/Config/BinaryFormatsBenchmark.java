@@ -0,0 +1,54 @@
+package com.example.TaskManager.Config;
+
+import com.example.TaskManager.DTO.TaskDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+/**
+ * Medición de tamaño y tiempo de serialización de 10k tareas en JSON, CBOR y Smile. No verifica nada,
+ * solo imprime; por eso lleva el tag "benchmark" y queda fuera de mvn test.
+ *
+ * Uso (desde Backend/):
+ *   ./mvnw -Pbenchmark test -Dtest=BinaryFormatsBenchmark
+ *   ./mvnw -Pbenchmark test -Dtest=BinaryFormatsBenchmark -Dbenchmark.rounds=200
+ *
+ * Es un promedio sobre una JVM caliente, no un JMH: sirve para comparar formatos en la misma máquina.
+ */
+@Tag("benchmark")
+public class BinaryFormatsBenchmark {
+
+    private static final int WARMUP = 20;
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 50);
+
+    @Test
+    public void BinaryFormats_sizeAndSerializationTime() throws Exception {
+        List<TaskDTO> tasks = BinaryFormatsConfigTest.tasks();
+        measure("JSON ", Jackson2ObjectMapperBuilder.json().build(), tasks);
+        measure("CBOR ", BinaryFormatsConfig.cborMapper(Jackson2ObjectMapperBuilder.json()), tasks);
+        measure("Smile", BinaryFormatsConfig.smileMapper(Jackson2ObjectMapperBuilder.json()), tasks);
+    }
+
+    private static void measure(String name, ObjectMapper mapper, List<TaskDTO> tasks) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            mapper.writeValueAsBytes(tasks);
+        }
+        int size = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            size = mapper.writeValueAsBytes(tasks).length;
+        }
+        double writeMs = (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+        byte[] payload = mapper.writeValueAsBytes(tasks);
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.readValue(payload, TaskDTO[].class);
+        }
+        double readMs = (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+        System.out.printf("%s %d tareas: %,d bytes, escritura %.2f ms, lectura %.2f ms%n",
+                name, tasks.size(), size, writeMs, readMs);
+    }
+}
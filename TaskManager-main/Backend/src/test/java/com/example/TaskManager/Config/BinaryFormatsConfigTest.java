@@ -0,0 +1,68 @@
+package com.example.TaskManager.Config;
+
+import com.example.TaskManager.DTO.TaskDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CBOR y Smile (con referencias a strings compartidos) contra JSON sobre una lista grande de tareas:
+ * solo lo estable, tamaño del payload e ida y vuelta. Los tiempos se miden en BinaryFormatsBenchmark.
+ */
+public class BinaryFormatsConfigTest {
+
+    private static final int TASKS = 10_000;
+    private static final String[] SECTORS = {"Centro Cívico", "Providencia", "Aeropuerto", "Ñuñoa", "Las Condes"};
+
+    @Test
+    public void BinaryFormats_largeTaskList_smallerThanJson() throws Exception {
+        List<TaskDTO> tasks = tasks();
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper cbor = BinaryFormatsConfig.cborMapper(Jackson2ObjectMapperBuilder.json());
+        ObjectMapper smile = BinaryFormatsConfig.smileMapper(Jackson2ObjectMapperBuilder.json());
+
+        int jsonSize = json.writeValueAsBytes(tasks).length;
+        int cborSize = cbor.writeValueAsBytes(tasks).length;
+        int smileSize = smile.writeValueAsBytes(tasks).length;
+
+        assertTrue(cborSize < jsonSize, "CBOR no es más chico que JSON");
+        assertTrue(smileSize < jsonSize, "Smile no es más chico que JSON");
+    }
+
+    @Test
+    public void BinaryFormats_roundTrip_keepValues() throws Exception {
+        List<TaskDTO> tasks = tasks();
+        for (ObjectMapper mapper : List.of(
+                BinaryFormatsConfig.cborMapper(Jackson2ObjectMapperBuilder.json()),
+                BinaryFormatsConfig.smileMapper(Jackson2ObjectMapperBuilder.json()))) {
+            List<TaskDTO> read = mapper.readValue(mapper.writeValueAsBytes(tasks), new TypeReference<>() {});
+            assertEquals(tasks, read);
+        }
+    }
+
+    static List<TaskDTO> tasks() {
+        List<TaskDTO> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            int sector = i % SECTORS.length;
+            tasks.add(TaskDTO.builder()
+                    .id((long) i)
+                    .title("Tarea " + i)
+                    .description("Revisar pendiente del sector")
+                    .dueDate(LocalDate.of(2025, 1, 1).plusDays(i % 365))
+                    .finished(i % 3 == 0)
+                    .important(i % 5 == 0)
+                    .userId((long) (i % 40))
+                    .sectorId((long) sector)
+                    .sectorName(SECTORS[sector])
+                    .build());
+        }
+        return tasks;
+    }
+}
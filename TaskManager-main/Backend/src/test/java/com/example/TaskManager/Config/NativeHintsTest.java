@@ -0,0 +1,57 @@
+package com.example.TaskManager.Config;
+
+import com.example.TaskManager.DTO.NearbyTaskProjection;
+import com.example.TaskManager.DTO.TaskDTO;
+import com.example.TaskManager.Security.Payload.LoginRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NativeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    public void setUp() {
+        hints = new RuntimeHints();
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    public void NativeHints_registerLibraryTypes() {
+        Stream.of(NativeHints.JTS_TYPES, NativeHints.SPATIAL_TYPES, NativeHints.JJWT_TYPES)
+                .flatMap(java.util.List::stream)
+                .forEach(type -> assertTrue(
+                        RuntimeHintsPredicates.reflection().onType(TypeReference.of(type)).test(hints),
+                        "Falta pista para " + type));
+    }
+
+    @Test
+    public void NativeHints_libraryTypesExistOnClasspath() {
+        // Si una versión nueva de la librería renombra una clase, la pista quedaría apuntando a nada
+        Stream.of(NativeHints.JTS_TYPES, NativeHints.SPATIAL_TYPES, NativeHints.JJWT_TYPES)
+                .flatMap(java.util.List::stream)
+                .forEach(type -> assertDoesNotThrow(() -> Class.forName(type), type));
+    }
+
+    @Test
+    public void NativeHints_registerDtosAndProjections() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TaskDTO.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(LoginRequest.class.getMethod("getUsername")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(NearbyTaskProjection.class).test(hints));
+    }
+
+    @Test
+    public void NativeHints_registerServiceLoaderResources() {
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/org.hibernate.boot.model.TypeContributor").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/io.jsonwebtoken.io.Serializer").test(hints));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.TaskManager.Controller;
+
+import com.example.TaskManager.DTO.TaskDTO;
+import com.example.TaskManager.Entity.Role;
+import com.example.TaskManager.Entity.Sector;
+import com.example.TaskManager.Entity.User;
+import com.example.TaskManager.Repository.SectorRepository;
+import com.example.TaskManager.Repository.UserRepository;
+import com.example.TaskManager.Service.StatisticsService;
+import com.example.TaskManager.Service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+import org.springframework.graphql.data.method.annotation.support.AnnotatedControllerConfigurer;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.graphql.execution.DefaultBatchLoaderRegistry;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.support.DefaultExecutionGraphQlRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class GraphQlControllerTest {
+
+    @Mock
+    private TaskService taskService;
+    @Mock
+    private StatisticsService statisticsService;
+    @Mock
+    private SectorRepository sectorRepository;
+    @Mock
+    private UserRepository userRepository;
+
+    private DefaultExecutionGraphQlService graphQlService;
+
+    // Esquema real + controlador con mocks, sin levantar Spring Boot ni base de datos
+    @BeforeEach
+    public void setUp() {
+        BatchLoaderRegistry batchLoaders = new DefaultBatchLoaderRegistry();
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.registerBean(BatchLoaderRegistry.class, () -> batchLoaders);
+        context.registerBean(GraphQlController.class,
+                () -> new GraphQlController(taskService, statisticsService, sectorRepository, userRepository));
+        context.refresh();
+
+        AnnotatedControllerConfigurer configurer = new AnnotatedControllerConfigurer();
+        configurer.setApplicationContext(context);
+        configurer.afterPropertiesSet();
+
+        GraphQlSource source = GraphQlSource.schemaResourceBuilder()
+                .schemaResources(new ClassPathResource("graphql/schema.graphqls"))
+                .configureRuntimeWiring(configurer)
+                .build();
+        graphQlService = new DefaultExecutionGraphQlService(source);
+        graphQlService.addDataLoaderRegistrar(batchLoaders);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void GraphQlController_tasksWithSectorAndOwner_loadRelationsOncePerRequest() {
+        // 500 tareas repartidas en 50 sectores y 5 dueños
+        List<TaskDTO> tasks = LongStream.rangeClosed(1, 500)
+                .mapToObj(id -> TaskDTO.builder().id(id).title("t" + id).dueDate(LocalDate.of(2026, 1, 1))
+                        .sectorId(id % 50 + 1).userId(id % 5 + 1).build())
+                .toList();
+        when(taskService.findByUserId(1L)).thenReturn(tasks);
+        when(sectorRepository.findAllById(anyIterable())).thenAnswer(inv -> {
+            List<Sector> sectors = new ArrayList<>();
+            ((Iterable<Long>) inv.getArgument(0)).forEach(id -> sectors.add(Sector.builder().id(id).name("S" + id).build()));
+            return sectors;
+        });
+        when(userRepository.findAllById(anyIterable())).thenAnswer(inv -> {
+            List<User> users = new ArrayList<>();
+            ((Iterable<Long>) inv.getArgument(0)).forEach(id -> users.add(User.builder().id(id).username("u" + id).role(Role.USER).build()));
+            return users;
+        });
+
+        Map<String, Object> data = execute("{ tasks(userId: 1) { id dueDate sector { name } owner { username role } } }");
+
+        List<Map<String, Object>> result = (List<Map<String, Object>>) data.get("tasks");
+        assertEquals(500, result.size());
+        assertEquals("2026-01-01", result.get(0).get("dueDate"));
+        assertEquals("S2", ((Map<String, Object>) result.get(0).get("sector")).get("name"));
+        assertEquals("u2", ((Map<String, Object>) result.get(0).get("owner")).get("username"));
+        // Un lote por relación, con los ids sin repetir
+        verify(sectorRepository, times(1)).findAllById(argThat(ids -> ((Collection<Long>) ids).size() == 50));
+        verify(userRepository, times(1)).findAllById(argThat(ids -> ((Collection<Long>) ids).size() == 5));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void GraphQlController_taskWithoutSector_returnNullSector() {
+        when(taskService.findByUnfinished(1L)).thenReturn(List.of(TaskDTO.builder().id(7L).title("sin sector").userId(1L).build()));
+
+        Map<String, Object> data = execute("{ tasks(userId: 1, filter: UNFINISHED) { id sector { name } } }");
+
+        List<Map<String, Object>> result = (List<Map<String, Object>>) data.get("tasks");
+        assertEquals("7", result.get(0).get("id"));
+        assertNull(result.get(0).get("sector"));
+        verify(sectorRepository, never()).findAllById(anyIterable());
+    }
+
+    private Map<String, Object> execute(String query) {
+        ExecutionGraphQlResponse response = graphQlService
+                .execute(new DefaultExecutionGraphQlRequest(query, null, null, null, "1", null))
+                .block();
+        assertNotNull(response);
+        assertTrue(response.getErrors().isEmpty(), () -> response.getErrors().toString());
+        return response.getData();
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.TaskManager.Controller;
+
+import com.example.TaskManager.DTO.SectorCountProjection;
+import com.example.TaskManager.DTO.TaskDTO;
+import com.example.TaskManager.Mapper.TaskMapper;
+import com.example.TaskManager.Repository.SectorRepository;
+import com.example.TaskManager.Repository.TaskRepository;
+import com.example.TaskManager.Repository.UserRepository;
+import com.example.TaskManager.Security.Config.SecurityConfig;
+import com.example.TaskManager.Security.Jwt.JwtAuthenticationFilter;
+import com.example.TaskManager.Security.Jwt.JwtService;
+import com.example.TaskManager.Security.RateLimit.RateLimitFilter;
+import com.example.TaskManager.Service.ReactiveStatisticsReader;
+import com.example.TaskManager.Service.ReactiveTaskReader;
+import com.example.TaskManager.Service.RouteService;
+import com.example.TaskManager.Service.StatisticsService;
+import com.example.TaskManager.Service.TaskArchiveService;
+import com.example.TaskManager.Service.TaskService;
+import com.example.TaskManager.Service.TaskSyncService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /api/rx contra sus equivalentes servlet, con la cadena de seguridad real (JWT) y servicios simulados:
+ * sin Spring Boot ni base de datos.
+ */
+@SpringJUnitWebConfig(ReactiveTaskControllerTest.Config.class)
+public class ReactiveTaskControllerTest {
+
+    private static final String TOKEN = "token";
+
+    @Configuration
+    @EnableWebMvc
+    @Import(SecurityConfig.class)
+    static class Config {
+
+        @Bean
+        JwtService jwtService() {
+            return mock(JwtService.class);
+        }
+
+        @Bean
+        UserDetailsService userDetailsService() {
+            return mock(UserDetailsService.class);
+        }
+
+        @Bean
+        JwtAuthenticationFilter jwtAuthenticationFilter(UserDetailsService userDetailsService, JwtService jwtService) {
+            return new JwtAuthenticationFilter(userDetailsService, jwtService);
+        }
+
+        @Bean
+        RateLimitFilter rateLimitFilter() {
+            return new RateLimitFilter(1_000, 1_000, 1, 1, 1);
+        }
+
+        @Bean
+        AuthenticationProvider authenticationProvider() {
+            return mock(AuthenticationProvider.class);
+        }
+
+        @Bean
+        TaskService taskService() {
+            return mock(TaskService.class);
+        }
+
+        @Bean
+        StatisticsService statisticsService() {
+            return mock(StatisticsService.class);
+        }
+
+        @Bean
+        ReactiveTaskReader reactiveTaskReader() {
+            return mock(ReactiveTaskReader.class);
+        }
+
+        @Bean
+        ReactiveStatisticsReader reactiveStatisticsReader() {
+            return mock(ReactiveStatisticsReader.class);
+        }
+
+        @Bean
+        TaskController taskController(TaskService taskService) {
+            return new TaskController(taskService, mock(TaskRepository.class), mock(UserRepository.class),
+                    mock(SectorRepository.class), mock(TaskMapper.class), mock(ApplicationEventPublisher.class),
+                    mock(RouteService.class), mock(TaskArchiveService.class), mock(TaskSyncService.class));
+        }
+
+        @Bean
+        StatisticsController statisticsController(StatisticsService statisticsService) {
+            return new StatisticsController(statisticsService);
+        }
+
+        @Bean
+        ReactiveTaskController reactiveTaskController(ReactiveTaskReader taskReader, ReactiveStatisticsReader statisticsReader) {
+            return new ReactiveTaskController(taskReader, statisticsReader);
+        }
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private UserDetailsService userDetailsService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private StatisticsService statisticsService;
+    @Autowired
+    private ReactiveTaskReader taskReader;
+    @Autowired
+    private ReactiveStatisticsReader statisticsReader;
+
+    private MockMvc mockMvc;
+
+    private final List<TaskDTO> tasks = List.of(
+            TaskDTO.builder().id(1L).title("Fiscalizar").description("Centro").dueDate(LocalDate.of(2026, 3, 1))
+                    .finished(false).important(true).userId(7L).sectorId(3L).sectorName("Centro").build(),
+            TaskDTO.builder().id(2L).title("Revisar").dueDate(LocalDate.of(2026, 3, 2))
+                    .finished(true).important(false).userId(7L).build());
+
+    @BeforeEach
+    public void setUp() {
+        reset(jwtService, userDetailsService, taskService, statisticsService, taskReader, statisticsReader);
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+
+        UserDetails user = User.withUsername("ana").password("x").roles("USER").build();
+        when(jwtService.getUsernameFromToken(TOKEN)).thenReturn("ana");
+        when(userDetailsService.loadUserByUsername("ana")).thenReturn(user);
+        when(jwtService.isTokenValid(TOKEN, user)).thenReturn(true);
+    }
+
+    @Test
+    public void ReactiveTaskController_tasks_sameBodyAsServlet() throws Exception {
+        when(taskService.findByUserId(7L)).thenReturn(tasks);
+        when(taskReader.findByUser(7L, ReactiveTaskReader.Filter.ALL)).thenReturn(Flux.fromIterable(tasks));
+        when(taskService.findByImportant(7L)).thenReturn(tasks.subList(0, 1));
+        when(taskReader.findByUser(7L, ReactiveTaskReader.Filter.IMPORTANT)).thenReturn(Flux.just(tasks.get(0)));
+
+        assertEquals(servlet(get("/api/tasks").param("userId", "7")),
+                reactive(get("/api/rx/tasks").param("userId", "7")));
+        assertEquals(servlet(get("/api/tasks/important").param("userId", "7")),
+                reactive(get("/api/rx/tasks/important").param("userId", "7")));
+    }
+
+    @Test
+    public void ReactiveTaskController_stats_sameBodyAsServlet() throws Exception {
+        List<SectorCountProjection> sectors = List.of(sectorCount(3L, "Centro", 12L), sectorCount(4L, "Providencia", 5L));
+        when(statisticsService.countCompletedBySectorForUser(7L)).thenReturn(sectors);
+        when(statisticsReader.countCompletedBySectorForUser(7L)).thenReturn(Flux.fromIterable(sectors));
+        when(statisticsService.nearestPendingTaskForUser(7L)).thenReturn(tasks.get(0));
+        when(statisticsReader.nearestPendingTaskForUser(7L)).thenReturn(Mono.just(tasks.get(0)));
+        when(statisticsService.avgDistanceCompletedTasksForUser(7L)).thenReturn(1234.5);
+        when(statisticsReader.avgDistanceCompletedTasksForUser(7L)).thenReturn(Mono.just(1234.5));
+
+        assertEquals(servlet(get("/api/stats/user/7/tasks-per-sector")),
+                reactive(get("/api/rx/stats/user/7/tasks-per-sector")));
+        assertEquals(servlet(get("/api/stats/user/7/nearest-pending")),
+                reactive(get("/api/rx/stats/user/7/nearest-pending")));
+        assertEquals(servlet(get("/api/stats/user/7/avg-distance-completed")),
+                reactive(get("/api/rx/stats/user/7/avg-distance-completed")));
+    }
+
+    @Test
+    public void ReactiveTaskController_asyncDispatch_keepsTheJwtUser() throws Exception {
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        when(taskReader.findByUser(7L, ReactiveTaskReader.Filter.ALL)).thenReturn(Flux.defer(() -> {
+            seen.set(SecurityContextHolder.getContext().getAuthentication());
+            return Flux.fromIterable(tasks);
+        }));
+
+        MvcResult started = mockMvc.perform(get("/api/rx/tasks").param("userId", "7")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        assertNotNull(seen.get());
+        assertEquals("ana", seen.get().getName());
+        // El JWT se valida una sola vez, en el despacho REQUEST
+        verify(jwtService, times(1)).isTokenValid(eq(TOKEN), any());
+    }
+
+    @Test
+    public void ReactiveTaskController_withoutToken_rejectedBeforeAsync() throws Exception {
+        mockMvc.perform(get("/api/rx/tasks").param("userId", "7").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isForbidden())
+                .andExpect(request().asyncNotStarted());
+
+        verifyNoInteractions(taskReader);
+    }
+
+    private String servlet(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(authenticated(request))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    // Flux/Mono: la respuesta sale en el segundo despacho (ASYNC)
+    private String reactive(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(authenticated(request))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN).accept(MediaType.APPLICATION_JSON);
+    }
+
+    private static SectorCountProjection sectorCount(Long id, String name, Long total) {
+        return new SectorCountProjection() {
+            public Long getSectorId() { return id; }
+            public String getSectorName() { return name; }
+            public Long getTotal() { return total; }
+        };
+    }
+}
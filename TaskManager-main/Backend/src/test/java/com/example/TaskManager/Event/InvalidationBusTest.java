@@ -0,0 +1,113 @@
+package com.example.TaskManager.Event;
+
+import com.example.TaskManager.Entity.TaskEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InvalidationBusTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private ObjectProvider<InvalidationListener> listeners;
+    @Mock
+    private InvalidationListener listener;
+
+    private InvalidationBus bus;
+
+    @BeforeEach
+    public void setUp() {
+        bus = new InvalidationBus(jdbcTemplate, new DataSourceProperties(), listeners, true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void InvalidationBus_dispatch_otherNode_notifyListeners() {
+        doAnswer(inv -> {
+            inv.<Consumer<InvalidationListener>>getArgument(0).accept(listener);
+            return null;
+        }).when(listeners).forEach(any(Consumer.class));
+
+        assertTrue(bus.dispatch("otro-nodo|sector|3,7"));
+
+        verify(listener).onInvalidate("sector", Set.of(3L, 7L));
+    }
+
+    @Test
+    public void InvalidationBus_dispatch_ownNodeOrMalformed_ignore() {
+        String own = InvalidationBus.encode(bus.nodeId(), "sector", List.of(1L)).get(0);
+
+        assertFalse(bus.dispatch(own));
+        assertFalse(bus.dispatch("sin-separadores"));
+        assertFalse(bus.dispatch("otro|sector|1,x"));
+        verifyNoInteractions(listeners);
+    }
+
+    @Test
+    public void InvalidationBus_encode_splitByPayloadBytes() {
+        // Ids de 19 dígitos: 500 de ellos ya pasan los 8000 bytes
+        List<Long> ids = LongStream.range(0, 1_000).map(i -> Long.MAX_VALUE - i).boxed().toList();
+
+        List<String> payloads = InvalidationBus.encode(bus.nodeId(), "task", ids);
+
+        assertTrue(payloads.size() > 2);
+        payloads.forEach(p -> assertTrue(p.getBytes(StandardCharsets.UTF_8).length <= InvalidationBus.MAX_PAYLOAD_BYTES, p));
+        List<Long> decoded = payloads.stream()
+                .flatMap(p -> Arrays.stream(p.split("\\|", 3)[2].split(",")))
+                .map(Long::valueOf)
+                .toList();
+        assertEquals(ids, decoded);
+    }
+
+    @Test
+    public void InvalidationBus_encode_fewIds_singlePayload() {
+        assertEquals(List.of("n|sector|3,7"), InvalidationBus.encode("n", "sector", List.of(3L, 7L)));
+        assertEquals(List.of(), InvalidationBus.encode("n", "sector", List.of()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void InvalidationBus_handle_oneNotifyPerEntityForTheWholeBatch() {
+        doAnswer(inv -> {
+            inv.<Consumer<InvalidationListener>>getArgument(0).accept(listener);
+            return null;
+        }).when(listeners).forEach(any(Consumer.class));
+
+        bus.handle(List.of(event(new Long[]{10L}, new Long[]{2L}), event(new Long[]{11L, 12L}, new Long[]{2L, 3L})));
+
+        verify(jdbcTemplate, times(2)).query(eq("SELECT pg_notify(?, ?)"), any(ResultSetExtractor.class),
+                eq(InvalidationBus.CHANNEL), anyString());
+        // El lote pudo escribirlo otro nodo: las cachés locales también se avisan
+        verify(listener).onInvalidate("sector", Set.of(2L, 3L));
+        verify(listener).onInvalidate("task", Set.of(10L, 11L, 12L));
+    }
+
+    private static TaskEvent event(Long[] taskIds, Long[] sectorIds) {
+        return TaskEvent.builder()
+                .type(TaskChangedEvent.ChangeType.UPDATED)
+                .taskIds(taskIds)
+                .sectorIds(sectorIds)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.TaskManager.Event;
+
+import com.example.TaskManager.Entity.TaskEvent;
+import com.example.TaskManager.Repository.TaskEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.ArgumentMatchers;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskEventConsumerTest {
+
+    @Mock
+    private TaskEventRepository taskEventRepository;
+    @Mock
+    private TaskEventHandler handler;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private TaskEventConsumer consumer;
+
+    @BeforeEach
+    public void setUp() {
+        consumer = new TaskEventConsumer(taskEventRepository, List.of(handler), transactionTemplate, 2);
+        when(transactionTemplate.execute(ArgumentMatchers.<TransactionCallback<Object>>any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    public void TaskEventConsumer_poll_drainInBatches() {
+        List<TaskEvent> first = events(1, 2);
+        List<TaskEvent> second = events(3);
+        when(taskEventRepository.lockNextBatch(2)).thenReturn(first).thenReturn(second);
+
+        consumer.poll();
+
+        verify(handler).handle(first);
+        verify(handler).handle(second);
+        verify(taskEventRepository).deleteAllInBatch(first);
+        verify(taskEventRepository).deleteAllInBatch(second);
+        // El segundo lote vino incompleto: no se vuelve a consultar
+        verify(taskEventRepository, times(2)).lockNextBatch(2);
+    }
+
+    @Test
+    public void TaskEventConsumer_poll_handlerFails_keepEvents() {
+        List<TaskEvent> batch = events(1, 2);
+        when(taskEventRepository.lockNextBatch(2)).thenReturn(batch);
+        doThrow(new IllegalStateException("caído")).when(handler).handle(anyList());
+
+        assertDoesNotThrow(() -> consumer.poll());
+
+        verify(taskEventRepository, never()).deleteAllInBatch(anyList());
+    }
+
+    private static List<TaskEvent> events(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> TaskEvent.builder()
+                        .id(id)
+                        .type(TaskChangedEvent.ChangeType.UPDATED)
+                        .taskIds(new Long[]{id})
+                        .sectorIds(new Long[0])
+                        .build())
+                .toList();
+    }
+}
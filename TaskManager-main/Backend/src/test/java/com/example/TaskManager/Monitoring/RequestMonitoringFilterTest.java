@@ -0,0 +1,212 @@
+package com.example.TaskManager.Monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import com.example.TaskManager.Security.Jwt.JwtAuthenticationFilter;
+import com.example.TaskManager.Security.Jwt.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RequestMonitoringFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestMonitoringFilter filter = new RequestMonitoringFilter(registry, 1.0, 500, true);
+
+    @Test
+    public void RequestMonitoringFilter_bodyWritten_headersBeforeBody() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tasks/{id}");
+            RequestMonitor.statementExecuted(RequestMonitor.start());
+            RequestMonitor.statementExecuted(RequestMonitor.start());
+            res.getWriter().write("{}");
+            res.flushBuffer();
+            // Ya comprometida: lo que venga después no cambia los headers
+            RequestMonitor.statementExecuted(RequestMonitor.start());
+        });
+
+        assertEquals("2", response.getHeader(RequestMonitoringFilter.STATEMENT_COUNT_HEADER));
+        DistributionSummary summary = registry.get(RequestMonitoringFilter.METRIC)
+                .tag("uri", "/api/tasks/{id}").tag("method", "GET").summary();
+        assertEquals(1, summary.count());
+        assertEquals(3.0, summary.totalAmount());
+        assertEquals(0, RequestMonitor.statements());
+    }
+
+    @Test
+    public void RequestMonitoringFilter_noBody_headersSetAtEnd() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/tasks/7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            RequestMonitor.statementExecuted(RequestMonitor.start());
+            ((HttpServletResponse) res).setStatus(204);
+        });
+
+        assertEquals("1", response.getHeader(RequestMonitoringFilter.STATEMENT_COUNT_HEADER));
+        assertEquals(1, registry.get(RequestMonitoringFilter.METRIC).tag("uri", "UNKNOWN").tag("status", "204").summary().count());
+    }
+
+    @Test
+    public void RequestMonitoringFilter_workerThreads_addedToRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/batch");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ExecutorService workers = Executors.newSingleThreadExecutor();
+        try {
+            filter.doFilter(request, response, (req, res) -> {
+                RequestMonitor.statementExecuted(RequestMonitor.start());
+                try {
+                    RequestMonitor.Usage usage = workers.submit(() -> {
+                        assertTrue(RequestMonitor.beginWorker());
+                        long db = RequestMonitor.start();
+                        spin(2);
+                        RequestMonitor.statementExecuted(db);
+                        RequestMonitor.statementExecuted(RequestMonitor.start());
+                        return RequestMonitor.endWorker();
+                    }).get();
+                    assertEquals(2, usage.statements());
+                    RequestMonitor.add(usage);
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+                // En el mismo hilo de la petición no se abre otra medición: no se cuenta dos veces
+                assertFalse(RequestMonitor.beginWorker());
+                assertEquals(3, RequestMonitor.statements());
+            });
+        } finally {
+            workers.shutdownNow();
+        }
+
+        assertEquals("3", response.getHeader(RequestMonitoringFilter.STATEMENT_COUNT_HEADER));
+        assertTrue(duration(response.getHeader(RequestMonitoringFilter.SERVER_TIMING_HEADER), "db") >= 2.0);
+        assertEquals(3.0, registry.get(RequestMonitoringFilter.METRIC).summary().totalAmount());
+    }
+
+    @Test
+    public void RequestMonitoringFilter_phases_inServerTiming() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            long auth = RequestMonitor.start();
+            spin(2);
+            RequestMonitor.stop(RequestMonitor.Phase.AUTH, auth);
+            long db = RequestMonitor.start();
+            spin(3);
+            RequestMonitor.statementExecuted(db);
+            long mapping = RequestMonitor.start();
+            RequestMonitor.stop(RequestMonitor.Phase.MAPPING, mapping);
+            RequestMonitor.serializationStarted();
+            spin(1);
+            // Sin escribir: la respuesta sigue en el buffer y los headers finales incluyen ser
+        });
+
+        String timing = response.getHeader(RequestMonitoringFilter.SERVER_TIMING_HEADER);
+        assertNotNull(timing);
+        assertTrue(timing.matches("auth;dur=\\d+\\.\\d, db;dur=\\d+\\.\\d;desc=\"1\", (mapping;dur=\\d+\\.\\d, )?ser;dur=\\d+\\.\\d, total;dur=\\d+\\.\\d"), timing);
+        assertTrue(duration(timing, "auth") >= 2.0, timing);
+        assertTrue(duration(timing, "db") >= 3.0, timing);
+        assertTrue(duration(timing, "total") >= 6.0, timing);
+    }
+
+    @Test
+    public void RequestMonitoringFilter_notExposed_headersOnlyForAdmin() throws Exception {
+        RequestMonitoringFilter adminOnly = new RequestMonitoringFilter(registry, 1.0, 500, false);
+
+        MockHttpServletResponse anonymous = new MockHttpServletResponse();
+        adminOnly.doFilter(new MockHttpServletRequest("GET", "/api/tasks"), anonymous, (req, res) -> res.getWriter().write("[]"));
+        MockHttpServletResponse emptyAnonymous = new MockHttpServletResponse();
+        adminOnly.doFilter(new MockHttpServletRequest("DELETE", "/api/tasks/7"), emptyAnonymous, (req, res) -> { });
+
+        MockHttpServletResponse admin = new MockHttpServletResponse();
+        adminOnly.doFilter(new MockHttpServletRequest("GET", "/api/admin/tasks"), admin, (req, res) -> {
+            RequestMonitor.adminRequest();
+            res.getWriter().write("[]");
+        });
+        // Sin cuerpo: los headers se ponen al final, con el SecurityContext ya limpio
+        MockHttpServletResponse emptyAdmin = new MockHttpServletResponse();
+        adminOnly.doFilter(new MockHttpServletRequest("DELETE", "/api/admin/tasks/7"), emptyAdmin, (req, res) -> RequestMonitor.adminRequest());
+
+        assertNull(anonymous.getHeader(RequestMonitoringFilter.STATEMENT_COUNT_HEADER));
+        assertNull(anonymous.getHeader(RequestMonitoringFilter.SERVER_TIMING_HEADER));
+        assertNull(emptyAnonymous.getHeader(RequestMonitoringFilter.STATEMENT_COUNT_HEADER));
+        assertEquals("0", admin.getHeader(RequestMonitoringFilter.STATEMENT_COUNT_HEADER));
+        assertNotNull(admin.getHeader(RequestMonitoringFilter.SERVER_TIMING_HEADER));
+        assertNotNull(emptyAdmin.getHeader(RequestMonitoringFilter.SERVER_TIMING_HEADER));
+        // La métrica se registra igual para todos
+        assertEquals(4, registry.get(RequestMonitoringFilter.METRIC).summaries().stream().mapToLong(DistributionSummary::count).sum());
+    }
+
+    @Test
+    public void RequestMonitoringFilter_adminJwt_headersAfterContextCleared() throws Exception {
+        RequestMonitoringFilter adminOnly = new RequestMonitoringFilter(registry, 1.0, 500, false);
+        UserDetailsService users = mock(UserDetailsService.class);
+        JwtService jwtService = mock(JwtService.class);
+        UserDetails admin = User.withUsername("root").password("x").roles("ADMIN").build();
+        when(jwtService.getUsernameFromToken("t")).thenReturn("root");
+        when(users.loadUserByUsername("root")).thenReturn(admin);
+        when(jwtService.isTokenValid("t", admin)).thenReturn(true);
+        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(users, jwtService);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/admin/tasks/7");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer t");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            adminOnly.doFilter(request, response, (req, res) -> {
+                jwtFilter.doFilter(req, res, new MockFilterChain());
+                // Como SecurityContextHolderFilter al salir de la cadena
+                SecurityContextHolder.clearContext();
+            });
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        assertNotNull(response.getHeader(RequestMonitoringFilter.SERVER_TIMING_HEADER));
+        assertTrue(response.getHeader(RequestMonitoringFilter.SERVER_TIMING_HEADER).startsWith("auth;dur="));
+    }
+
+    @Test
+    public void RequestMonitor_outsideRequest_measuresNothing() {
+        long start = RequestMonitor.start();
+        RequestMonitor.statementExecuted(start);
+        RequestMonitor.stop(RequestMonitor.Phase.DB, start);
+
+        assertEquals(0L, start);
+        assertEquals(0, RequestMonitor.statements());
+    }
+
+    private static double duration(String timing, String name) {
+        for (String entry : timing.split(", ")) {
+            if (entry.startsWith(name + ";dur=")) {
+                return Double.parseDouble(entry.substring(name.length() + 5).split(";")[0]);
+            }
+        }
+        return -1;
+    }
+
+    private static void spin(long millis) {
+        long end = System.nanoTime() + millis * 1_000_000L;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+}
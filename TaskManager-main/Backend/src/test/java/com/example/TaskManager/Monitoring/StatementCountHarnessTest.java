@@ -0,0 +1,289 @@
+package com.example.TaskManager.Monitoring;
+
+import com.example.TaskManager.Repository.UserRepository;
+import com.example.TaskManager.Security.Jwt.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Detector de N+1: llama a cada endpoint de los controladores con datasets de distinto tamaño
+ * y compara el header X-SQL-Statement-Count. Falla si el conteo crece con el tamaño de las listas.
+ *
+ * Usa la misma BD desechable que QueryPlanRegressionTest (-Dplan.db.url, schema_final.sql se recrea).
+ */
+@EnabledIfSystemProperty(named = "plan.db.url", matches = ".+")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class StatementCountHarnessTest {
+
+    private static final int[] SIZES = {1, 10, 50};
+    private static final String PASSWORD = "secret123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void postgis(DynamicPropertyRegistry registry) throws Exception {
+        String url = System.getProperty("plan.db.url");
+        String user = System.getProperty("plan.db.user", "postgres");
+        String password = System.getProperty("plan.db.password", "postgres");
+        // El esquema se crea aquí: este método corre antes de levantar el contexto
+        try (Connection c = DriverManager.getConnection(url, user, password); Statement st = c.createStatement()) {
+            st.execute(Files.readString(Path.of(System.getProperty("plan.schema", "../schema_final.sql"))));
+        }
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> user);
+        registry.add("spring.datasource.password", () -> password);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("ratelimit.capacity", () -> "1000000");
+        registry.add("archive.interval-ms", () -> "86400000");
+        // Los endpoints de usuario también necesitan el header de conteo
+        registry.add("monitoring.timing.expose-headers", () -> "true");
+    }
+
+    // Ids del dataset vigente, para armar las URLs
+    private record Fixture(long userId, long taskId, long otherTaskId, long sectorId, int size,
+                           String userToken, String adminToken) {
+    }
+
+    private record Endpoint(String name, Function<Fixture, MockHttpServletRequestBuilder> request) {
+    }
+
+    @Test
+    public void everyEndpoint_statementCount_doesNotGrowWithListSize() throws Exception {
+        List<Endpoint> endpoints = endpoints();
+        Map<String, int[]> counts = new LinkedHashMap<>();
+        List<String> problems = new ArrayList<>();
+
+        for (int s = 0; s < SIZES.length; s++) {
+            Fixture fixture = seed(SIZES[s]);
+            for (Endpoint endpoint : endpoints) {
+                MvcResult result = mockMvc.perform(endpoint.request.apply(fixture)).andReturn();
+                int status = result.getResponse().getStatus();
+                String header = result.getResponse().getHeader(RequestMonitoringFilter.STATEMENT_COUNT_HEADER);
+                if (status >= 400 || header == null) {
+                    problems.add(endpoint.name + " (n=" + SIZES[s] + "): estado " + status + ", header " + header);
+                    continue;
+                }
+                counts.computeIfAbsent(endpoint.name, k -> new int[SIZES.length])[s] = Integer.parseInt(header);
+            }
+        }
+
+        StringBuilder table = new StringBuilder("Sentencias SQL por endpoint (n = ");
+        for (int size : SIZES) {
+            table.append(size).append(' ');
+        }
+        table.append(")\n");
+        counts.forEach((name, c) -> {
+            table.append(String.format("  %-45s", name));
+            for (int v : c) {
+                table.append(String.format("%5d", v));
+            }
+            table.append('\n');
+            if (c[c.length - 1] > c[0]) {
+                problems.add(name + ": " + c[0] + " -> " + c[c.length - 1] + " sentencias (crece con la lista)");
+            }
+        });
+
+        assertTrue(problems.isEmpty(), String.join("\n", problems) + "\n" + table);
+    }
+
+    private List<Endpoint> endpoints() {
+        LocalDate due = LocalDate.now().plusDays(3);
+        return List.of(
+                // TaskController
+                new Endpoint("GET /api/tasks", f -> user(get("/api/tasks").param("userId", id(f.userId)), f)),
+                new Endpoint("GET /api/tasks/{id}", f -> user(get("/api/tasks/" + f.taskId), f)),
+                new Endpoint("GET /api/tasks/finished", f -> user(get("/api/tasks/finished").param("userId", id(f.userId)), f)),
+                new Endpoint("GET /api/tasks/unfinished", f -> user(get("/api/tasks/unfinished").param("userId", id(f.userId)), f)),
+                new Endpoint("GET /api/tasks/important", f -> user(get("/api/tasks/important").param("userId", id(f.userId)), f)),
+                new Endpoint("GET /api/tasks/near", f -> user(get("/api/tasks/near")
+                        .param("lat", "-33.45").param("lon", "-70.65").param("radius", "50000"), f)),
+                new Endpoint("GET /api/tasks/route", f -> user(get("/api/tasks/route").param("userId", id(f.userId)), f)),
+                new Endpoint("GET /api/tasks/archive", f -> user(get("/api/tasks/archive").param("userId", id(f.userId)), f)),
+                new Endpoint("GET /api/tasks/changes", f -> user(get("/api/tasks/changes").param("userId", id(f.userId)).param("since", "1"), f)),
+                // StatisticsController
+                new Endpoint("GET /api/stats/user/{userId}/tasks-per-sector", f -> user(get("/api/stats/user/" + f.userId + "/tasks-per-sector"), f)),
+                new Endpoint("GET /api/stats/user/{userId}/nearest-pending", f -> user(get("/api/stats/user/" + f.userId + "/nearest-pending"), f)),
+                new Endpoint("GET /api/stats/user/{userId}/top-sector-2km", f -> user(get("/api/stats/user/" + f.userId + "/top-sector-2km"), f)),
+                new Endpoint("GET /api/stats/user/{userId}/top-sector-5km", f -> user(get("/api/stats/user/" + f.userId + "/top-sector-5km"), f)),
+                new Endpoint("GET /api/stats/user/{userId}/avg-distance-completed", f -> user(get("/api/stats/user/" + f.userId + "/avg-distance-completed"), f)),
+                new Endpoint("GET /api/stats/user/{userId}/completed-by-distance-band", f -> user(get("/api/stats/user/" + f.userId + "/completed-by-distance-band"), f)),
+                new Endpoint("GET /api/stats/pending-by-sector", f -> user(get("/api/stats/pending-by-sector"), f)),
+                new Endpoint("GET /api/stats/completed-by-user-and-sector", f -> user(get("/api/stats/completed-by-user-and-sector"), f)),
+                // SectorController, UserController, TileController
+                new Endpoint("GET /api/sectors", f -> user(get("/api/sectors"), f)),
+                new Endpoint("GET /api/users/me", f -> user(get("/api/users/me"), f)),
+                new Endpoint("GET /api/tiles/{z}/{x}/{y}.mvt", f -> user(get("/api/tiles/12/1244/2464.mvt"), f)),
+                // GraphQlController: sector y owner por lotes
+                new Endpoint("POST /graphql tasks { sector owner }", f -> user(post("/graphql")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("query", "{ tasks(userId: " + f.userId + ") { id sector { name } owner { username } } "
+                                + "sectors { id } stats(userId: " + f.userId + ") { tasksPerSector { total } } }"))), f)),
+                // BatchController: lecturas en paralelo, las del pool se suman al conteo del batch
+                new Endpoint("POST /api/batch list, stats, archive", f -> user(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("requests", List.of(
+                                Map.of("id", "list", "method", "GET", "path", "/api/tasks?userId=" + f.userId),
+                                Map.of("id", "stats", "method", "GET", "path", "/api/stats/user/" + f.userId + "/tasks-per-sector"),
+                                Map.of("id", "archive", "method", "GET", "path", "/api/tasks/archive?userId=" + f.userId))))), f)),
+                // Escrituras al final: cambian los datos que leen las llamadas anteriores
+                new Endpoint("POST /api/tasks", f -> user(post("/api/tasks").param("userId", id(f.userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("title", "nueva", "dueDate", due.toString(), "sectorId", f.sectorId))), f)),
+                new Endpoint("PUT /api/tasks/{id}", f -> user(put("/api/tasks/" + f.taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("title", "editada", "dueDate", due.toString(), "sectorId", f.sectorId))), f)),
+                new Endpoint("PATCH /api/tasks/{id}/toggle", f -> user(patch("/api/tasks/" + f.taskId + "/toggle"), f)),
+                new Endpoint("DELETE /api/tasks/{id}", f -> user(delete("/api/tasks/" + f.otherTaskId), f)),
+                // AdminController
+                new Endpoint("GET /api/admin/users", f -> admin(get("/api/admin/users"), f)),
+                new Endpoint("GET /api/admin/tasks", f -> admin(get("/api/admin/tasks"), f)),
+                new Endpoint("POST /api/admin/tasks", f -> admin(post("/api/admin/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("title", "admin", "dueDate", due.toString(),
+                                "userId", f.userId, "sectorId", f.sectorId))), f)),
+                new Endpoint("PUT /api/admin/tasks/{id}", f -> admin(put("/api/admin/tasks/" + f.taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("title", "admin", "dueDate", due.toString(),
+                                "userId", f.userId, "sectorId", f.sectorId))), f)),
+                new Endpoint("POST /api/admin/dispatch", f -> admin(post("/api/admin/dispatch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("taskIds", pendingTaskIds(f.userId)))), f)),
+                new Endpoint("POST /api/admin/tasks/bulk-delete", f -> admin(post("/api/admin/tasks/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(finishedTaskIds(f.userId))), f)),
+                new Endpoint("DELETE /api/admin/tasks/finished", f -> admin(delete("/api/admin/tasks/finished")
+                        .param("before", LocalDate.now().plusYears(1).toString()), f)),
+                // AuthController (público)
+                new Endpoint("POST /api/auth/login", f -> post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("username", "plan_user", "password", PASSWORD)))),
+                new Endpoint("POST /api/auth/register", f -> post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("username", "plan_new_" + f.size, "password", PASSWORD,
+                                "firstname", "Nuevo", "lastname", "Usuario",
+                                "latitude", -33.44, "longitude", -70.66)))));
+    }
+
+    // Dataset de tamaño n: n sectores, n usuarios extra, y para plan_user n pendientes, n terminadas y n archivadas
+    private Fixture seed(int n) {
+        jdbcTemplate.execute("TRUNCATE task_event, task_archive, user_sector_distance, task, sector, db_user RESTART IDENTITY CASCADE");
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+
+        jdbcTemplate.update("""
+                INSERT INTO sector (name, location)
+                SELECT 'sector_' || g, ST_SetSRID(ST_MakePoint(-70.70 + g * 0.001, -33.48 + g * 0.001), 4326)
+                FROM generate_series(1, ?) g
+                """, n);
+        jdbcTemplate.update("""
+                INSERT INTO db_user (username, firstname, lastname, password, role, latitude, longitude, location)
+                VALUES ('plan_user', 'Plan', 'User', ?, 'USER', -33.45, -70.65, ST_SetSRID(ST_MakePoint(-70.65, -33.45), 4326)),
+                       ('plan_admin', 'Plan', 'Admin', ?, 'ADMIN', NULL, NULL, NULL)
+                """, hash, hash);
+        jdbcTemplate.update("""
+                INSERT INTO db_user (username, firstname, lastname, password, role, location)
+                SELECT 'other_' || g, 'Otro', 'User', ?, 'USER', ST_SetSRID(ST_MakePoint(-70.66 + g * 0.001, -33.46), 4326)
+                FROM generate_series(1, ?) g
+                """, hash, n);
+        long userId = jdbcTemplate.queryForObject("SELECT user_id FROM db_user WHERE username = 'plan_user'", Long.class);
+
+        // Las de plan_user reparten sectores: cada una apunta a un sector distinto (peor caso para N+1)
+        jdbcTemplate.update("""
+                INSERT INTO task (title, description, due_date, finished, important, user_id, sector_id)
+                SELECT 'tarea ' || g, 'desc', CURRENT_DATE + (g % 30) - CASE WHEN f THEN 400 ELSE 0 END,
+                       f, g % 2 = 0, ?, 1 + (g % ?)
+                FROM generate_series(1, ?) g, (VALUES (false), (true)) AS v(f)
+                """, userId, n, n);
+        jdbcTemplate.update("""
+                INSERT INTO task (title, due_date, user_id, sector_id)
+                SELECT 'otra ' || u.user_id, CURRENT_DATE + 5, u.user_id, 1
+                FROM db_user u WHERE u.username LIKE 'other_%'
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO task_archive (id, title, due_date, user_id, sector_id)
+                SELECT 1000000 + g, 'archivada ' || g, CURRENT_DATE - 500, ?, 1 + (g % ?)
+                FROM generate_series(1, ?) g
+                """, userId, n, n);
+        jdbcTemplate.update("""
+                INSERT INTO user_sector_distance (user_id, sector_id, meters)
+                SELECT u.user_id, s.id, ST_Distance(u.geog, s.geog)
+                FROM db_user u CROSS JOIN sector s
+                WHERE u.geog IS NOT NULL AND s.geog IS NOT NULL
+                """);
+
+        long taskId = pendingTaskIds(userId).get(0);
+        // La que borra DELETE /api/tasks/{id} es de otro usuario: no afecta a las demás llamadas
+        long otherTaskId = jdbcTemplate.queryForObject("SELECT min(id) FROM task WHERE user_id <> ?", Long.class, userId);
+        return new Fixture(userId, taskId, otherTaskId, 1L, n,
+                jwtService.getToken(userRepository.findByUsername("plan_user").orElseThrow()),
+                jwtService.getToken(userRepository.findByUsername("plan_admin").orElseThrow()));
+    }
+
+    private List<Long> pendingTaskIds(long userId) {
+        return jdbcTemplate.queryForList("SELECT id FROM task WHERE user_id = ? AND finished = false ORDER BY id", Long.class, userId);
+    }
+
+    private List<Long> finishedTaskIds(long userId) {
+        return jdbcTemplate.queryForList("SELECT id FROM task WHERE user_id = ? AND finished = true ORDER BY id", Long.class, userId);
+    }
+
+    private static MockHttpServletRequestBuilder user(MockHttpServletRequestBuilder request, Fixture f) {
+        return request.header("Authorization", "Bearer " + f.userToken);
+    }
+
+    private static MockHttpServletRequestBuilder admin(MockHttpServletRequestBuilder request, Fixture f) {
+        return request.header("Authorization", "Bearer " + f.adminToken);
+    }
+
+    private static String id(long id) {
+        return Long.toString(id);
+    }
+
+    private String json(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
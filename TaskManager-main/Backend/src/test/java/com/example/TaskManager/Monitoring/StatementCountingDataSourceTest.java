@@ -0,0 +1,107 @@
+package com.example.TaskManager.Monitoring;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class StatementCountingDataSourceTest {
+
+    @AfterEach
+    public void tearDown() {
+        RequestMonitor.end(RequestMonitor.begin());
+    }
+
+    private DataSource dataSource() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        return new StatementCountingDataSource(target);
+    }
+
+    @Test
+    public void StatementCountingDataSource_execute_countsEachRoundTrip() throws Exception {
+        DataSource dataSource = dataSource();
+        RequestMonitor.State state = RequestMonitor.begin();
+
+        try (Connection c = dataSource.getConnection()) {
+            PreparedStatement ps = c.prepareStatement("SELECT 1");
+            ps.executeQuery();
+            ps.setLong(1, 2L);
+            ps.executeQuery();
+            ps.addBatch();
+            ps.addBatch();
+            ps.executeBatch();
+            c.createStatement().execute("SELECT 2");
+        }
+
+        assertEquals(4, RequestMonitor.statements());
+        RequestMonitor.end(state);
+        assertTrue(state.nanos(RequestMonitor.Phase.DB) > 0);
+    }
+
+    @Test
+    public void StatementCountingDataSource_outsideRequest_notCounted() throws Exception {
+        DataSource dataSource = dataSource();
+
+        dataSource.getConnection().prepareStatement("SELECT 1").executeUpdate();
+
+        assertEquals(0, RequestMonitor.statements());
+    }
+
+    @Test
+    public void StatementCountingDataSource_exception_propagatesOriginal() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new java.sql.SQLException("sin conexión"));
+
+        java.sql.SQLException e = assertThrows(java.sql.SQLException.class,
+                () -> new StatementCountingDataSource(target).getConnection());
+        assertEquals("sin conexión", e.getMessage());
+    }
+
+    @Test
+    public void StatementCountingDataSource_unwrap_reachesTarget() throws Exception {
+        HikariDataSource target = mock(HikariDataSource.class);
+        when(target.unwrap(HikariDataSource.class)).thenReturn(target);
+
+        DataSource wrapped = new StatementCountingDataSource(target);
+
+        assertSame(target, wrapped.unwrap(HikariDataSource.class));
+        assertEquals(wrapped, wrapped);
+        assertNotEquals(wrapped, target);
+    }
+
+    @Test
+    public void StatementCountingDataSource_close_closesPool() throws Exception {
+        HikariDataSource pool = mock(HikariDataSource.class);
+
+        new StatementCountingDataSource(pool).close();
+
+        verify(pool).close();
+    }
+
+    @Test
+    public void StatementCountingPostProcessor_contextClose_closesPool() {
+        HikariDataSource pool = mock(HikariDataSource.class);
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(StatementCountingPostProcessor.class);
+            context.registerBean("dataSource", HikariDataSource.class, () -> pool);
+            context.refresh();
+
+            assertInstanceOf(StatementCountingDataSource.class, context.getBean(DataSource.class));
+        }
+
+        verify(pool).close();
+    }
+}
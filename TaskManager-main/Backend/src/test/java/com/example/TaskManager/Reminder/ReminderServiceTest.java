@@ -0,0 +1,173 @@
+package com.example.TaskManager.Reminder;
+
+import com.example.TaskManager.DTO.ReminderCandidateProjection;
+import com.example.TaskManager.Event.TaskChangedEvent;
+import com.example.TaskManager.Repository.TaskRepository;
+import com.example.TaskManager.Service.AdvisoryLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReminderServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+    private static final Instant NOW = TODAY.atTime(9, 0).atZone(ZONE).toInstant();
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private AdvisoryLock advisoryLock;
+
+    @Mock
+    private AdvisoryLock.Handle leadership;
+
+    private final List<Reminder> delivered = new ArrayList<>();
+    private ReminderService reminderService;
+
+    @BeforeEach
+    public void setUp() {
+        // Tick de 1 minuto, aviso 24 h antes, 7 días de horizonte; el sink solo junta lo recibido
+        reminderService = new ReminderService(taskRepository, advisoryLock, List.of(delivered::add), 60_000, 24, 7);
+        // Este nodo tiene el lock de entrega salvo que el test diga otra cosa
+        lenient().when(advisoryLock.tryAcquire(ReminderService.REMINDER_LOCK_KEY)).thenReturn(Optional.of(leadership));
+        lenient().when(leadership.isValid()).thenReturn(true);
+    }
+
+    @Test
+    public void ReminderService_load_fireOnlyWhenDue() {
+        when(taskRepository.findPendingDueBetween(TODAY, TODAY.plusDays(7))).thenReturn(List.of(
+                task(1L, TODAY.plusDays(2), false),
+                task(2L, TODAY.plusDays(3), false)));
+        reminderService.load(NOW);
+        assertEquals(2, reminderService.scheduledCount());
+
+        // La tarea 1 vence en 2 días: se avisa al inicio de mañana
+        reminderService.tick(TODAY.plusDays(1).atStartOfDay(ZONE).toInstant().minusSeconds(60));
+        assertTrue(delivered.isEmpty());
+        reminderService.tick(TODAY.plusDays(1).atStartOfDay(ZONE).toInstant());
+        assertEquals(1, delivered.size());
+        assertEquals(1L, delivered.get(0).taskId());
+    }
+
+    @Test
+    public void ReminderService_toggleAndDelete_updateIncrementally() {
+        when(taskRepository.findPendingDueBetween(any(), any())).thenReturn(List.of(task(1L, TODAY.plusDays(2), false)));
+        reminderService.load(NOW);
+
+        // Marcada como terminada -> se cancela
+        reminderService.apply(List.of(1L), List.of(task(1L, TODAY.plusDays(2), true)));
+        assertEquals(0, reminderService.scheduledCount());
+
+        // Nueva tarea que vence mañana: la hora de aviso ya pasó, sale en el próximo tick
+        reminderService.apply(List.of(5L), List.of(task(5L, TODAY.plusDays(1), false)));
+        assertEquals(1, reminderService.scheduledCount());
+
+        reminderService.onTaskChanged(TaskChangedEvent.deleted(List.of(5L), List.of()));
+        assertEquals(0, reminderService.scheduledCount());
+
+        reminderService.tick(NOW.plusSeconds(3600));
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    public void ReminderService_editAfterPastDueReminder_notSentAgain() {
+        when(taskRepository.findPendingDueBetween(any(), any())).thenReturn(List.of());
+        reminderService.load(NOW);
+
+        // Creada para mañana: el aviso ya debió salir, se manda en el próximo tick
+        reminderService.apply(List.of(5L), List.of(task(5L, TODAY.plusDays(1), false)));
+        reminderService.tick(NOW.plusSeconds(60));
+        assertEquals(1, delivered.size());
+
+        // Editarla (título, sector, ...) sin cambiar el vencimiento no repite el aviso
+        reminderService.apply(List.of(5L), List.of(task(5L, TODAY.plusDays(1), false)));
+        reminderService.apply(List.of(5L), List.of(task(5L, TODAY.plusDays(1), false)));
+        reminderService.tick(NOW.plusSeconds(120));
+        assertEquals(1, delivered.size());
+        assertEquals(0, reminderService.scheduledCount());
+
+        // Cambiarle el vencimiento sí
+        reminderService.apply(List.of(5L), List.of(task(5L, TODAY, false)));
+        reminderService.tick(NOW.plusSeconds(180));
+        assertEquals(2, delivered.size());
+    }
+
+    @Test
+    public void ReminderService_loadedAfterReminderTime_editDoesNotSend() {
+        // Ya vencía mañana al arrancar: se supone avisada antes
+        when(taskRepository.findPendingDueBetween(TODAY, TODAY.plusDays(7))).thenReturn(List.of(task(3L, TODAY.plusDays(1), false)));
+        reminderService.load(NOW);
+
+        reminderService.apply(List.of(3L), List.of(task(3L, TODAY.plusDays(1), false)));
+        reminderService.tick(NOW.plusSeconds(60));
+
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    public void ReminderService_withoutLock_advanceButNotDeliver() {
+        when(advisoryLock.tryAcquire(ReminderService.REMINDER_LOCK_KEY)).thenReturn(Optional.empty());
+        when(taskRepository.findPendingDueBetween(any(), any())).thenReturn(List.of(task(1L, TODAY.plusDays(2), false)));
+        reminderService.load(NOW);
+
+        reminderService.tick(TODAY.plusDays(1).atStartOfDay(ZONE).toInstant());
+
+        assertTrue(delivered.isEmpty());
+        assertEquals(0, reminderService.scheduledCount());
+    }
+
+    @Test
+    public void ReminderService_onInvalidateTask_applyChangesFromOtherNode() {
+        when(taskRepository.findPendingDueBetween(TODAY, TODAY.plusDays(7))).thenReturn(List.of(task(1L, TODAY.plusDays(2), false)));
+        reminderService.load(NOW);
+        when(taskRepository.findReminderCandidatesByIdIn(any())).thenReturn(List.of(task(2L, TODAY.plusDays(3), false)));
+
+        // 1 se borró en otro nodo (ya no existe), 2 se creó
+        reminderService.onInvalidate("task", Set.of(1L, 2L));
+        reminderService.onInvalidate("sector", Set.of(1L));
+
+        assertEquals(1, reminderService.scheduledCount());
+        reminderService.tick(TODAY.plusDays(2).atStartOfDay(ZONE).toInstant());
+        assertEquals(List.of(2L), delivered.stream().map(Reminder::taskId).toList());
+    }
+
+    @Test
+    public void ReminderService_newDay_loadOnlyTheDayEnteringHorizon() {
+        when(taskRepository.findPendingDueBetween(TODAY, TODAY.plusDays(7))).thenReturn(List.of());
+        reminderService.load(NOW);
+        when(taskRepository.findPendingDueBetween(TODAY.plusDays(8), TODAY.plusDays(8)))
+                .thenReturn(List.of(task(9L, TODAY.plusDays(8), false)));
+
+        reminderService.tick(NOW.plusSeconds(24 * 3600));
+
+        assertEquals(1, reminderService.scheduledCount());
+    }
+
+    private static ReminderCandidateProjection task(Long id, LocalDate dueDate, boolean finished) {
+        return new ReminderCandidateProjection() {
+            public Long getId() { return id; }
+            public Long getUserId() { return 1L; }
+            public String getTitle() { return "Tarea " + id; }
+            public LocalDate getDueDate() { return dueDate; }
+            public Boolean getFinished() { return finished; }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.TaskManager.Reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTest {
+
+    @Test
+    public void TimingWheel_advance_fireAtDeadlineAcrossLevels() {
+        TimingWheel<Integer, String> wheel = new TimingWheel<>(1_000);
+        wheel.schedule(1, "nivel0", 1_010);
+        wheel.schedule(2, "nivel1", 1_000 + 200);
+        wheel.schedule(3, "nivel2", 1_000 + 10_000);
+        wheel.schedule(4, "nivel3", 1_000 + 300_000);
+
+        assertEquals(List.of(), wheel.advanceTo(1_009));
+        assertEquals(List.of("nivel0"), wheel.advanceTo(1_010));
+        assertEquals(List.of(), wheel.advanceTo(1_199));
+        assertEquals(List.of("nivel1"), wheel.advanceTo(1_200));
+        assertEquals(List.of(), wheel.advanceTo(10_999));
+        assertEquals(List.of("nivel2"), wheel.advanceTo(11_000));
+        assertEquals(List.of(), wheel.advanceTo(300_999));
+        assertEquals(List.of("nivel3"), wheel.advanceTo(301_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void TimingWheel_randomDeadlines_fireExactlyOnTheirTick() {
+        Random random = new Random(7);
+        long start = 123_456;
+        TimingWheel<Integer, Long> wheel = new TimingWheel<>(start);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            long deadline = start + random.nextInt(200_000);
+            deadlines.add(deadline);
+            wheel.schedule(i, deadline, deadline);
+        }
+
+        int fired = 0;
+        for (long tick = start; tick < start + 200_000; tick += 1 + random.nextInt(50)) {
+            long from = wheel.nextTick();
+            for (Long deadline : wheel.advanceTo(tick)) {
+                assertTrue(deadline >= from && deadline <= tick, "Disparó " + deadline + " en el tramo " + from + ".." + tick);
+                fired++;
+            }
+        }
+        fired += wheel.advanceTo(start + 200_000).size();
+        assertEquals(deadlines.size(), fired);
+    }
+
+    @Test
+    public void TimingWheel_cancelAndReschedule() {
+        TimingWheel<Integer, String> wheel = new TimingWheel<>(0);
+        wheel.schedule(1, "a", 100);
+        wheel.schedule(2, "b", 100);
+        assertTrue(wheel.cancel(2));
+        wheel.schedule(1, "a2", 5_000);
+
+        assertEquals(List.of(), wheel.advanceTo(4_999));
+        assertEquals(List.of("a2"), wheel.advanceTo(5_000));
+        assertFalse(wheel.cancel(1));
+    }
+
+    @Test
+    public void TimingWheel_pastDeadline_fireOnNextTick() {
+        TimingWheel<Integer, String> wheel = new TimingWheel<>(50);
+        wheel.schedule(1, "atrasada", 10);
+
+        assertEquals(List.of("atrasada"), wheel.advanceTo(50));
+    }
+
+    @Test
+    public void TimingWheel_beyondSpan_fireOnTime() {
+        long far = (1L << (TimingWheel.SLOT_BITS * TimingWheel.LEVELS)) + 500;
+        TimingWheel<Integer, String> wheel = new TimingWheel<>(0);
+        wheel.schedule(1, "lejana", far);
+
+        assertEquals(List.of(), wheel.advanceTo(far - 1));
+        assertEquals(List.of("lejana"), wheel.advanceTo(far));
+    }
+}
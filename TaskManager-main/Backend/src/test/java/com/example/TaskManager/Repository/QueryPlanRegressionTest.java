@@ -0,0 +1,393 @@
+package com.example.TaskManager.Repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static java.util.Map.entry;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regresión de planes de las consultas nativas de los repositorios.
+ *
+ * Carga un dataset sintético grande en un PostGIS local y corre EXPLAIN (FORMAT JSON) de cada
+ * {@code @Query(nativeQuery = true)} de los repositorios del proyecto (se buscan en el classpath):
+ * exige índice sobre las tablas grandes, poda de particiones y un costo máximo. Si el plan cambió
+ * respecto de su línea base (src/test/resources/query-plans) deja el diff en el log; si además rompe
+ * una expectativa, el diff va en el mensaje del fallo.
+ *
+ * Solo corre con -Dplan.db.url=jdbc:postgresql://localhost:5432/&lt;bd&gt;. La BD debe ser
+ * desechable: se recrea con schema_final.sql (DROP TABLE de todo).
+ * Con -Dplan.update=true reescribe las líneas base en vez de solo compararlas.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "plan.db.url", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class QueryPlanRegressionTest {
+
+    private static final String BASE_PACKAGE = "com.example.TaskManager";
+
+    private static final int USERS = 1_000;
+    private static final int SECTORS = 2_000;
+    private static final int TASKS = 400_000;
+
+    // Punto de muestra: centro de Santiago, dentro de la caja donde se siembran usuarios y sectores
+    private static final double LAT = -33.45;
+    private static final double LON = -70.65;
+    private static final int TILE_ZOOM = 14;
+
+    private static final Path BASELINES = Path.of("src/test/resources/query-plans");
+    private static final Path PENDING_BASELINES = Path.of("target/query-plans");
+
+    // :param -> literal SQL. Con literales el planificador arma el mismo plan "custom" que ve JDBC
+    private static final Map<String, String> SAMPLE_VALUES = Map.ofEntries(
+            entry("id", "1234"),
+            entry("ids", LongStream.rangeClosed(1_000, 1_049).mapToObj(Long::toString).collect(Collectors.joining(", "))),
+            entry("userId", "77"),
+            entry("sectorId", "42"),
+            entry("candidates", "25"),
+            entry("distanceInMeters", "5000"),
+            entry("lat", Double.toString(LAT)),
+            entry("lon", Double.toString(LON)),
+            entry("radius", "2000"),
+            entry("finished", "false"),
+            entry("limit", "50"),
+            entry("afterDistance", "500"),
+            entry("afterId", "1000"),
+            entry("before", "(CURRENT_DATE - 180)"),
+            entry("since", "0"),
+            entry("z", Integer.toString(TILE_ZOOM)),
+            entry("x", Integer.toString(tileX(LON, TILE_ZOOM))),
+            entry("y", Integer.toString(tileY(LAT, TILE_ZOOM))));
+
+    // Tablas que crecen con el uso. Una consulta sin expectativa propia no puede leerlas con Seq Scan
+    // ni pasar de DEFAULT_MAX_COST
+    private static final Set<String> LARGE_RELATIONS = Set.of(
+            "task_pending", "task_finished", "task_tombstone", "user_sector_distance");
+    private static final double DEFAULT_MAX_COST = 20_000;
+
+    // Expectativas más precisas por consulta (Repositorio.método):
+    //   indexed:   tablas/particiones que deben leerse por índice (nunca Seq Scan)
+    //   untouched: particiones que deben quedar podadas
+    //   maxCost:   costo total estimado del plan con el dataset sembrado
+    private static final Map<String, Expectation> EXPECTATIONS = Map.ofEntries(
+            entry("TaskRepository.dispatchCandidatesForTasks",
+                    new Expectation(Set.of("task_pending", "db_user"), Set.of("task_finished"), 10_000)),
+            entry("TaskRepository.dispatchCandidatesForSector",
+                    new Expectation(Set.of("task_pending", "db_user"), Set.of("task_finished"), 20_000)),
+            entry("TaskRepository.deleteTaskById",
+                    new Expectation(Set.of("task_pending", "task_finished"), Set.of(), 100)),
+            entry("TaskRepository.deleteTaskByIdAndUserId",
+                    new Expectation(Set.of("task_pending", "task_finished"), Set.of(), 100)),
+            entry("TaskRepository.deleteTasksByIdIn",
+                    new Expectation(Set.of("task_pending", "task_finished"), Set.of(), 1_000)),
+            entry("TaskRepository.countCompletedBySectorForUser",
+                    new Expectation(Set.of("task_finished"), Set.of("task_pending"), 5_000)),
+            entry("TaskRepository.findNearestPendingTaskForUser",
+                    new Expectation(Set.of("task_pending", "user_sector_distance"), Set.of("task_finished"), 5_000)),
+            entry("TaskRepository.topCompletedSectorNearUser",
+                    new Expectation(Set.of("task_finished", "user_sector_distance"), Set.of("task_pending"), 5_000)),
+            entry("TaskRepository.avgDistanceCompletedTasksForUser",
+                    new Expectation(Set.of("task_finished", "user_sector_distance"), Set.of("task_pending"), 5_000)),
+            entry("TaskRepository.completedBySectorWithDistanceForUser",
+                    new Expectation(Set.of("task_finished", "user_sector_distance"), Set.of("task_pending"), 5_000)),
+            entry("TaskRepository.findNearPoint",
+                    new Expectation(Set.of("sector", "task_pending"), Set.of("task_finished"), 20_000)),
+            entry("TaskRepository.findNearPointAfter",
+                    new Expectation(Set.of("sector", "task_pending"), Set.of("task_finished"), 20_000)),
+            // Agregados globales: recorren su partición completa, pero solo esa
+            entry("TaskRepository.pendingTasksBySector",
+                    new Expectation(Set.of(), Set.of("task_finished"), 30_000)),
+            entry("TaskRepository.completedTasksByUserAndSector",
+                    new Expectation(Set.of(), Set.of("task_pending"), 60_000)),
+            entry("SectorRepository.sectorTile",
+                    new Expectation(Set.of("sector"), Set.of(), 20_000)),
+            entry("UserSectorDistanceRepository.deleteAllForUser",
+                    new Expectation(Set.of("user_sector_distance"), Set.of(), 2_000)),
+            entry("UserSectorDistanceRepository.deleteAllForSector",
+                    new Expectation(Set.of("user_sector_distance"), Set.of(), 2_000)),
+            entry("UserSectorDistanceRepository.insertAllForUser",
+                    new Expectation(Set.of("db_user"), Set.of(), 100_000)),
+            entry("UserSectorDistanceRepository.insertAllForSector",
+                    new Expectation(Set.of("sector"), Set.of(), 100_000)),
+            // Anti-join usuarios x sectores contra la tabla ya sembrada: ST_Distance solo para los pares que
+            // faltan (ninguno aquí). Calcularla para todo el producto cruz (~2M pares) cuesta decenas de millones
+            entry("UserSectorDistanceRepository.insertMissing",
+                    new Expectation(Set.of(), Set.of(), 1_000_000)),
+            entry("TaskArchiveRepository.archiveFinishedBefore",
+                    new Expectation(Set.of("task_finished"), Set.of("task_pending"), 5_000)),
+            entry("TaskRepository.findTombstonedSince",
+                    new Expectation(Set.of("task_tombstone"), Set.of(), 1_000)),
+            // Una fila / una función: sin tablas grandes que vigilar
+            entry("TaskRepository.changeWatermark",
+                    new Expectation(Set.of(), Set.of(), 10)),
+            entry("TaskRepository.syncHorizon",
+                    new Expectation(Set.of(), Set.of(), 100)),
+            entry("TaskRepository.purgeTombstonesBefore",
+                    new Expectation(Set.of(), Set.of(), 5_000)),
+            entry("TaskEventRepository.lockNextBatch",
+                    new Expectation(Set.of(), Set.of(), 1_000)));
+
+    private static final Pattern PARAM = Pattern.compile("(?<![:\\w]):(\\w+)");
+    private static final Set<String> INDEX_SCANS = Set.of("Index Scan", "Index Only Scan", "Bitmap Heap Scan");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Connection connection;
+
+    @BeforeAll
+    void seed() throws Exception {
+        connection = DriverManager.getConnection(
+                System.getProperty("plan.db.url"),
+                System.getProperty("plan.db.user", "postgres"),
+                System.getProperty("plan.db.password", "postgres"));
+
+        String schema = Files.readString(Path.of(System.getProperty("plan.schema", "../schema_final.sql")));
+        long start = System.nanoTime();
+        try (Statement st = connection.createStatement()) {
+            st.execute(schema);
+            st.execute("SELECT setseed(0.42)");
+            st.execute("""
+                    INSERT INTO db_user (username, firstname, lastname, password, role, location)
+                    SELECT 'plan_user_' || g, 'Plan', 'User', 'x', 'USER',
+                           ST_SetSRID(ST_MakePoint(-70.80 + random() * 0.30, -33.60 + random() * 0.30), 4326)
+                    FROM generate_series(1, %d) g
+                    """.formatted(USERS));
+            st.execute("""
+                    INSERT INTO sector (name, location)
+                    SELECT 'plan_sector_' || g,
+                           ST_SetSRID(ST_MakePoint(-70.80 + random() * 0.30, -33.60 + random() * 0.30), 4326)
+                    FROM generate_series(1, %d) g
+                    """.formatted(SECTORS));
+            // Mitad terminadas, fechas repartidas en dos años, usuarios y sectores sin correlación
+            st.execute("""
+                    WITH u AS (SELECT min(user_id) AS lo, count(*) AS n FROM db_user),
+                         s AS (SELECT min(id) AS lo, count(*) AS n FROM sector)
+                    INSERT INTO task (title, description, due_date, finished, important, user_id, sector_id)
+                    SELECT 'plan task ' || g, NULL, CURRENT_DATE - 365 + (g %% 730), g %% 2 = 0, g %% 7 = 0,
+                           u.lo + (g %% u.n), s.lo + ((g * 7919) %% s.n)
+                    FROM generate_series(1, %d) g, u, s
+                    """.formatted(TASKS));
+            st.execute("""
+                    INSERT INTO user_sector_distance (user_id, sector_id, meters)
+                    SELECT u.user_id, s.id, ST_Distance(u.geog, s.geog)
+                    FROM db_user u
+                    CROSS JOIN sector s
+                    WHERE u.geog IS NOT NULL AND s.geog IS NOT NULL
+                    ON CONFLICT (user_id, sector_id) DO NOTHING
+                    """);
+            // Lápidas: el trigger task_write_tombstone registra cada borrado
+            st.execute("DELETE FROM task WHERE id % 50 = 0");
+            st.execute("ANALYZE");
+        }
+        log.info("Dataset sembrado en {} ms ({} usuarios, {} sectores, {} tareas)",
+                (System.nanoTime() - start) / 1_000_000, USERS, SECTORS, TASKS);
+    }
+
+    @AfterAll
+    void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @TestFactory
+    Stream<DynamicTest> nativeQueries_keepIndexUsageAndCost() {
+        return nativeQueries().map(m -> DynamicTest.dynamicTest(key(m), () -> checkPlan(m)));
+    }
+
+    private void checkPlan(Method method) throws Exception {
+        String key = key(method);
+        Expectation expected = EXPECTATIONS.getOrDefault(key,
+                new Expectation(Set.of(), Set.of(), DEFAULT_MAX_COST, LARGE_RELATIONS));
+
+        JsonNode plan;
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("EXPLAIN (FORMAT JSON) " + bind(method.getAnnotation(Query.class).value()))) {
+            assertTrue(rs.next());
+            plan = mapper.readTree(rs.getString(1)).get(0).get("Plan");
+        }
+
+        List<PlanNode> nodes = new ArrayList<>();
+        flatten(plan, 0, nodes);
+        String shape = nodes.stream().map(PlanNode::toString).collect(Collectors.joining("\n")) + "\n";
+        String diff = compareWithBaseline(key, shape);
+
+        List<String> problems = new ArrayList<>();
+        for (PlanNode n : nodes) {
+            if ("Seq Scan".equals(n.type) && expected.noSeqScan.contains(n.relation)) {
+                problems.add("Seq Scan sobre " + n.relation);
+            }
+            if (n.relation != null && n.type.endsWith("Scan") && expected.untouched.contains(n.relation)) {
+                problems.add("partición no podada: " + n.relation);
+            }
+        }
+        for (String relation : expected.indexed) {
+            boolean viaIndex = nodes.stream().anyMatch(n -> relation.equals(n.relation) && INDEX_SCANS.contains(n.type));
+            if (!viaIndex) {
+                problems.add("sin acceso por índice a " + relation);
+            }
+        }
+        double cost = plan.get("Total Cost").asDouble();
+        if (cost > expected.maxCost) {
+            problems.add(String.format("costo %.0f > %.0f (filas estimadas %d)", cost, expected.maxCost, plan.get("Plan Rows").asLong()));
+        }
+
+        if (!problems.isEmpty()) {
+            fail(key + ": " + String.join("; ", problems) + "\nPlan:\n" + shape
+                    + (diff != null ? "Diff contra la línea base:\n" + diff : ""));
+        }
+    }
+
+    // Devuelve el diff si el plan cambió respecto de la línea base (null si no hay cambio o no hay línea base)
+    private String compareWithBaseline(String key, String shape) throws Exception {
+        Path baseline = BASELINES.resolve(key + ".txt");
+        if (Boolean.getBoolean("plan.update")) {
+            Files.createDirectories(BASELINES);
+            Files.writeString(baseline, shape);
+            return null;
+        }
+        if (!Files.exists(baseline)) {
+            // Sin línea base todavía: se deja el plan en target/ para revisarlo y copiarlo
+            Files.createDirectories(PENDING_BASELINES);
+            Files.writeString(PENDING_BASELINES.resolve(key + ".txt"), shape);
+            log.info("Sin línea base para {}, plan escrito en {}", key, PENDING_BASELINES);
+            return null;
+        }
+        String previous = Files.readString(baseline);
+        if (previous.equals(shape)) {
+            return null;
+        }
+        String diff = diff(previous.lines().toList(), shape.lines().toList());
+        log.info("El plan de {} cambió:\n{}", key, diff);
+        return diff;
+    }
+
+    // Reemplaza cada :param por su valor de muestra
+    private static String bind(String sql) {
+        Matcher m = PARAM.matcher(sql);
+        StringBuilder out = new StringBuilder();
+        while (m.find()) {
+            String value = SAMPLE_VALUES.get(m.group(1));
+            assertNotNull(value, "Sin valor de muestra para :" + m.group(1));
+            m.appendReplacement(out, Matcher.quoteReplacement(value));
+        }
+        return m.appendTail(out).toString();
+    }
+
+    private static void flatten(JsonNode node, int depth, List<PlanNode> out) {
+        out.add(new PlanNode(depth, node.path("Node Type").asText(),
+                node.hasNonNull("Relation Name") ? node.get("Relation Name").asText() : null,
+                node.hasNonNull("Index Name") ? node.get("Index Name").asText() : null));
+        for (JsonNode child : node.path("Plans")) {
+            flatten(child, depth + 1, out);
+        }
+    }
+
+    // Diff línea a línea (LCS): "-" solo en la línea base, "+" solo en el plan actual
+    static String diff(List<String> before, List<String> after) {
+        int[][] lcs = new int[before.size() + 1][after.size() + 1];
+        for (int i = before.size() - 1; i >= 0; i--) {
+            for (int j = after.size() - 1; j >= 0; j--) {
+                lcs[i][j] = before.get(i).equals(after.get(j))
+                        ? lcs[i + 1][j + 1] + 1
+                        : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+            }
+        }
+        StringBuilder out = new StringBuilder();
+        int i = 0;
+        int j = 0;
+        while (i < before.size() || j < after.size()) {
+            if (i < before.size() && j < after.size() && before.get(i).equals(after.get(j))) {
+                out.append("  ").append(before.get(i++)).append('\n');
+                j++;
+            } else if (j < after.size() && (i == before.size() || lcs[i][j + 1] >= lcs[i + 1][j])) {
+                out.append("+ ").append(after.get(j++)).append('\n');
+            } else {
+                out.append("- ").append(before.get(i++)).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    private static Stream<Method> nativeQueries() {
+        return repositories().stream()
+                .flatMap(repo -> Arrays.stream(repo.getDeclaredMethods()))
+                .filter(m -> m.isAnnotationPresent(Query.class) && m.getAnnotation(Query.class).nativeQuery())
+                .sorted(Comparator.comparing(QueryPlanRegressionTest::key));
+    }
+
+    // Interfaces de Spring Data del proyecto: una nueva entra sola a la suite
+    private static List<Class<?>> repositories() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition definition) {
+                return definition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+        return scanner.findCandidateComponents(BASE_PACKAGE).stream()
+                .<Class<?>>map(definition -> ClassUtils.resolveClassName(definition.getBeanClassName(), null))
+                .toList();
+    }
+
+    private static String key(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    private static int tileX(double lon, int zoom) {
+        return (int) Math.floor((lon + 180) / 360 * (1 << zoom));
+    }
+
+    private static int tileY(double lat, int zoom) {
+        double rad = Math.toRadians(lat);
+        return (int) Math.floor((1 - Math.log(Math.tan(rad) + 1 / Math.cos(rad)) / Math.PI) / 2 * (1 << zoom));
+    }
+
+    // noSeqScan: tablas que no pueden leerse con Seq Scan (por defecto, las de indexed)
+    private record Expectation(Set<String> indexed, Set<String> untouched, double maxCost, Set<String> noSeqScan) {
+        Expectation(Set<String> indexed, Set<String> untouched, double maxCost) {
+            this(indexed, untouched, maxCost, indexed);
+        }
+    }
+
+    private record PlanNode(int depth, String type, String relation, String index) {
+        @Override
+        public String toString() {
+            return "  ".repeat(depth) + type
+                    + (index != null ? " using " + index : "")
+                    + (relation != null ? " on " + relation : "");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.TaskManager.Security;
+
+import com.example.TaskManager.Security.Hashing.FailedLoginCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FailedLoginCacheTest {
+
+    @Test
+    public void FailedLoginCache_sameCredentials_rejectUntilExpiry() {
+        FailedLoginCache cache = new FailedLoginCache(1_000, 100);
+        cache.recordFailure("ana", "malaClave", 0);
+
+        assertTrue(cache.recentlyFailed("ana", "malaClave", 500));
+        assertFalse(cache.recentlyFailed("ana", "otraClave", 500));
+        assertFalse(cache.recentlyFailed("pedro", "malaClave", 500));
+        assertFalse(cache.recentlyFailed("ana", "malaClave", 1_000));
+    }
+
+    @Test
+    public void FailedLoginCache_forget_clearUserEntries() {
+        FailedLoginCache cache = new FailedLoginCache(1_000, 100);
+        cache.recordFailure("ana", "a", 0);
+        cache.recordFailure("ana", "b", 0);
+        cache.recordFailure("anabel", "a", 0);
+
+        cache.forget("ana");
+
+        assertFalse(cache.recentlyFailed("ana", "a", 1));
+        assertTrue(cache.recentlyFailed("anabel", "a", 1));
+    }
+
+    @Test
+    public void FailedLoginCache_full_dropExpiredFirst() {
+        FailedLoginCache cache = new FailedLoginCache(100, 2);
+        cache.recordFailure("a", "x", 0);
+        cache.recordFailure("b", "x", 50);
+
+        cache.recordFailure("c", "x", 120);
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.recentlyFailed("b", "x", 120));
+        assertTrue(cache.recentlyFailed("c", "x", 120));
+    }
+}
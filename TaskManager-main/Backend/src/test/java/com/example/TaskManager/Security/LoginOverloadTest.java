@@ -0,0 +1,117 @@
+package com.example.TaskManager.Security;
+
+import com.example.TaskManager.Entity.Role;
+import com.example.TaskManager.Entity.User;
+import com.example.TaskManager.Security.Auth.AuthController;
+import com.example.TaskManager.Security.Auth.AuthService;
+import com.example.TaskManager.Security.Hashing.BoundedPasswordEncoder;
+import com.example.TaskManager.Security.Hashing.FailedLoginCache;
+import com.example.TaskManager.Security.Hashing.HashingOverloadedException;
+import com.example.TaskManager.Security.Payload.LoginRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Ráfaga de logins (como al inicio de turno): lo que no cabe en el pool de hashing se rechaza con 503
+ * sin esperar a BCrypt, y un reintento idéntico de un login fallido no vuelve a pasar por BCrypt.
+ */
+public class LoginOverloadTest {
+
+    @Test
+    public void BoundedPasswordEncoder_poolAndQueueFull_rejectWithoutWaiting() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        PasswordEncoder blocking = mock(PasswordEncoder.class);
+        when(blocking.matches(any(), any())).thenAnswer(inv -> {
+            running.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        // Un hilo de hashing y un lugar en la cola
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, 30_000);
+        ExecutorService requests = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> first = requests.submit(() -> encoder.matches("a", "hash"));
+            assertTrue(running.await(10, TimeUnit.SECONDS));
+            Future<Boolean> second = requests.submit(() -> encoder.matches("b", "hash"));
+            while (encoder.queued() == 0) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(HashingOverloadedException.class, () -> encoder.matches("c", "hash"));
+
+            release.countDown();
+            assertTrue(first.get(10, TimeUnit.SECONDS));
+            assertTrue(second.get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            requests.shutdownNow();
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    public void AuthController_hashingOverloaded_return503WithRetryAfter() throws Exception {
+        AuthService authService = mock(AuthService.class);
+        when(authService.login(any())).thenThrow(new HashingOverloadedException("lleno"));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AuthController(authService)).build();
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"ana\",\"password\":\"clave123\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    public void AuthService_repeatedFailedLogin_skipBcrypt() {
+        AtomicInteger bcryptCalls = new AtomicInteger();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        PasswordEncoder counting = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return bcrypt.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                bcryptCalls.incrementAndGet();
+                return bcrypt.matches(rawPassword, encodedPassword);
+            }
+        };
+        User ana = User.builder().id(1L).username("ana").password(bcrypt.encode("clave123")).role(Role.USER).build();
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(username -> ana);
+        provider.setPasswordEncoder(counting);
+        AuthService authService = new AuthService(null, null, counting, new ProviderManager(provider), null,
+                new FailedLoginCache(60_000, 100));
+        LoginRequest wrong = LoginRequest.builder().username("ana").password("incorrecta").build();
+
+        assertThrows(BadCredentialsException.class, () -> authService.login(wrong));
+        assertEquals(1, bcryptCalls.get());
+
+        assertThrows(BadCredentialsException.class, () -> authService.login(wrong));
+        assertEquals(1, bcryptCalls.get());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.TaskManager.Security;
+
+import com.example.TaskManager.Security.Hashing.BoundedPasswordEncoder;
+import com.example.TaskManager.Security.Hashing.FailedLoginCache;
+import com.example.TaskManager.Security.Hashing.HashingOverloadedException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput de login ante una ráfaga (inicio de turno), antes y después del pool acotado de hashing:
+ * BCrypt directo en los hilos de petición contra BoundedPasswordEncoder con la configuración por defecto
+ * (auth.hashing.*). Imprime logins/s, rechazos 503 y latencias; además el costo de un reintento fallido
+ * que resuelve FailedLoginCache. No verifica tiempos: lleva el tag "benchmark" y queda fuera de mvn test.
+ *
+ * Uso (desde Backend/):
+ *   ./mvnw -Pbenchmark test -Dtest=LoginThroughputBenchmark
+ *   ./mvnw -Pbenchmark test -Dtest=LoginThroughputBenchmark -Dbenchmark.login.clients=200
+ */
+@Tag("benchmark")
+public class LoginThroughputBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.login.clients", 64);
+    private static final int LOGINS_PER_CLIENT = Integer.getInteger("benchmark.login.per-client", 4);
+    // Mismos valores que application.properties
+    private static final int HASHING_THREADS = 2;
+    private static final int QUEUE_CAPACITY = 64;
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    private final BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+    private final String hash = bcrypt.encode("clave123");
+
+    @Test
+    public void LoginBurst_unboundedVsBoundedEncoder() throws Exception {
+        // Calentamiento del JIT
+        for (int i = 0; i < 5; i++) {
+            bcrypt.matches("clave123", hash);
+        }
+        burst("BCrypt en el hilo de la petición", bcrypt);
+        BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(bcrypt, HASHING_THREADS, QUEUE_CAPACITY, TIMEOUT_MILLIS);
+        try {
+            burst("BoundedPasswordEncoder (" + HASHING_THREADS + " hilos, cola " + QUEUE_CAPACITY + ")", bounded);
+        } finally {
+            bounded.destroy();
+        }
+    }
+
+    @Test
+    public void LoginRetry_failedLoginCacheVsBcrypt() {
+        FailedLoginCache cache = new FailedLoginCache(60_000, 10_000);
+        cache.recordFailure("ana", "incorrecta", 0);
+
+        int rounds = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            bcrypt.matches("incorrecta", hash);
+        }
+        double bcryptMicros = (System.nanoTime() - start) / 1e3 / rounds;
+
+        start = System.nanoTime();
+        for (int i = 0; i < rounds * 1000; i++) {
+            cache.recentlyFailed("ana", "incorrecta", 1);
+        }
+        double cacheMicros = (System.nanoTime() - start) / 1e3 / (rounds * 1000);
+
+        System.out.printf("Reintento fallido: BCrypt %.0f µs, FailedLoginCache %.2f µs%n", bcryptMicros, cacheMicros);
+    }
+
+    private void burst(String name, PasswordEncoder encoder) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Long> acceptedNanos = Collections.synchronizedList(new ArrayList<>());
+        List<Long> rejectedNanos = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < LOGINS_PER_CLIENT; j++) {
+                        long t0 = System.nanoTime();
+                        try {
+                            encoder.matches("clave123", hash);
+                            acceptedNanos.add(System.nanoTime() - t0);
+                        } catch (HashingOverloadedException e) {
+                            rejected.incrementAndGet();
+                            rejectedNanos.add(System.nanoTime() - t0);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long t0 = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - t0) / 1e9;
+
+            System.out.printf("%s, %d clientes x %d logins en %.2f s:%n", name, CLIENTS, LOGINS_PER_CLIENT, seconds);
+            System.out.printf("  aceptados %d (%.1f logins/s), p50 %.0f ms, p99 %.0f ms%n",
+                    acceptedNanos.size(), acceptedNanos.size() / seconds,
+                    percentile(acceptedNanos, 50), percentile(acceptedNanos, 99));
+            System.out.printf("  rechazados (503) %d, p99 %.2f ms%n", rejected.get(), percentile(rejectedNanos, 99));
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static double percentile(List<Long> nanos, int p) {
+        if (nanos.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(nanos);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+}
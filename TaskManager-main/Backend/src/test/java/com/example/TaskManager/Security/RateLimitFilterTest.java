@@ -0,0 +1,41 @@
+package com.example.TaskManager.Security;
+
+import com.example.TaskManager.Security.RateLimit.RateLimitFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterTest {
+
+    // Capacidad 10, sin recarga apreciable; estadísticas 5, admin 3, resto 1
+    private final RateLimitFilter filter = new RateLimitFilter(10, 0.001, 5, 3, 1);
+
+    @Test
+    public void RateLimitFilter_graphql_paysLikeStats() {
+        assertEquals(0, filter.tryConsume("ana", "/graphql"));
+        assertEquals(0, filter.tryConsume("ana", "/graphql"));
+
+        assertTrue(filter.tryConsume("ana", "/graphql") > 0);
+        assertTrue(filter.tryConsume("ana", "/api/tasks") > 0);
+    }
+
+    @Test
+    public void RateLimitFilter_plainEndpoint_paysDefaultCost() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, filter.tryConsume("ana", "/api/tasks"));
+        }
+        assertTrue(filter.tryConsume("ana", "/api/tasks") > 0);
+        // Cada usuario tiene su propio cupo
+        assertEquals(0, filter.tryConsume("bruno", "/api/rx/stats/pending-by-sector"));
+    }
+
+    @Test
+    public void RateLimitFilter_costAboveCapacity_failAtStartup() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitFilter(4, 1, 5, 3, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitFilter(10, 1, 5, 11, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitFilter(10, 1, 5, 3, 10.5));
+        // Igual a la capacidad sí se admite: con el bucket lleno alcanza
+        RateLimitFilter exact = new RateLimitFilter(5, 0.001, 5, 3, 1);
+        assertEquals(0, exact.tryConsume("ana", "/api/stats/pending-by-sector"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.TaskManager.Security;
+
+import com.example.TaskManager.Security.RateLimit.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void TokenBucket_consumeUntilEmpty_returnWaitTime() {
+        TokenBucket bucket = new TokenBucket(10, 1, 0);
+
+        assertEquals(0, bucket.tryConsume(5, 0));
+        assertEquals(0, bucket.tryConsume(5, 0));
+
+        long wait = bucket.tryConsume(5, 0);
+        assertEquals(5 * SECOND, wait);
+    }
+
+    @Test
+    public void TokenBucket_refillOverTime_allowAgain() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+
+        assertEquals(0, bucket.tryConsume(10, 0));
+        assertTrue(bucket.tryConsume(4, SECOND) > 0);
+        assertEquals(0, bucket.tryConsume(4, 2 * SECOND));
+    }
+
+    @Test
+    public void TokenBucket_neverExceedsCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 100, 0);
+
+        assertTrue(bucket.isFull(60 * SECOND));
+        assertTrue(bucket.tryConsume(11, 60 * SECOND) > 0);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.TaskManager.Service;
+
+import com.example.TaskManager.DTO.DispatchCandidateProjection;
+import com.example.TaskManager.DTO.DispatchRequestDTO;
+import com.example.TaskManager.DTO.DispatchResultDTO;
+import com.example.TaskManager.Event.TaskChangedEvent;
+import com.example.TaskManager.Repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DispatchServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private DispatchService dispatchService;
+
+    @BeforeEach
+    public void setUp() {
+        dispatchService = new DispatchService(taskRepository, jdbcTemplate, eventPublisher, 25);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void DispatchService_dispatch_respectCapPerUser() {
+        // Dos tareas del mismo sector, el usuario 10 es el más cercano pero solo tiene cupo para una
+        when(taskRepository.dispatchCandidatesForTasks(anyCollection(), anyInt())).thenReturn(List.of(
+                row(1L, 5L, 99L, 10L, 100.0),
+                row(2L, 5L, 99L, 10L, 100.0),
+                row(1L, 5L, 99L, 20L, 900.0),
+                row(2L, 5L, 99L, 20L, 900.0)
+        ));
+
+        DispatchResultDTO result = dispatchService.dispatch(
+                DispatchRequestDTO.builder().taskIds(List.of(1L, 2L, 3L)).maxPerUser(1).build());
+
+        assertEquals(2, result.getAssignments().size());
+        assertEquals(10L, result.getAssignments().get(0).getUserId());
+        assertEquals(20L, result.getAssignments().get(1).getUserId());
+        assertEquals(2, result.getReassigned());
+        // La 3 no tiene candidatos (terminada, sin sector o inexistente)
+        assertEquals(List.of(3L), result.getUnassigned());
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+        assertEquals(2, batch.getValue().size());
+
+        ArgumentCaptor<TaskChangedEvent> event = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Set.of(5L), event.getValue().sectorIds());
+    }
+
+    @Test
+    public void DispatchService_dispatch_sameOwner_skipUpdate() {
+        when(taskRepository.dispatchCandidatesForSector(5L, 25)).thenReturn(List.of(
+                row(1L, 5L, 10L, 10L, 50.0)
+        ));
+
+        DispatchResultDTO result = dispatchService.dispatch(DispatchRequestDTO.builder().sectorId(5L).build());
+
+        assertEquals(1, result.getAssignments().size());
+        assertEquals(0, result.getReassigned());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void DispatchService_dispatch_noTasksNorSector_throw() {
+        assertThrows(IllegalArgumentException.class,
+                () -> dispatchService.dispatch(DispatchRequestDTO.builder().build()));
+    }
+
+    private static DispatchCandidateProjection row(Long taskId, Long sectorId, Long currentUserId, Long userId, Double meters) {
+        return new DispatchCandidateProjection() {
+            public Long getTaskId() { return taskId; }
+            public Long getSectorId() { return sectorId; }
+            public Long getCurrentUserId() { return currentUserId; }
+            public Long getUserId() { return userId; }
+            public Double getMeters() { return meters; }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.TaskManager.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoutePlannerTest {
+
+    private static final double ORIGIN_LAT = -33.4489;
+    private static final double ORIGIN_LON = -70.6693;
+
+    @Test
+    public void RoutePlanner_plan_returnEveryStopOnce() {
+        double[][] points = randomPoints(200, 1);
+
+        int[] order = RoutePlanner.plan(ORIGIN_LAT, ORIGIN_LON, points[0], points[1], TimeUnit.MILLISECONDS.toNanos(50));
+
+        assertEveryStopOnce(order, 200);
+    }
+
+    @Test
+    public void RoutePlanner_plan_notLongerThanNearestNeighbor() {
+        double[][] points = randomPoints(300, 2);
+
+        int[] nearestNeighbor = RoutePlanner.plan(ORIGIN_LAT, ORIGIN_LON, points[0], points[1], 0);
+        int[] improved = RoutePlanner.plan(ORIGIN_LAT, ORIGIN_LON, points[0], points[1], TimeUnit.MILLISECONDS.toNanos(50));
+
+        double nnLength = RoutePlanner.length(ORIGIN_LAT, ORIGIN_LON, points[0], points[1], nearestNeighbor);
+        double improvedLength = RoutePlanner.length(ORIGIN_LAT, ORIGIN_LON, points[0], points[1], improved);
+        assertTrue(improvedLength <= nnLength, "2-opt empeoró la ruta");
+    }
+
+    @Test
+    public void RoutePlanner_thousandStops_everyStopOnceAndNotLongerThanNearestNeighbor() {
+        double[][] points = randomPoints(1000, 3);
+
+        int[] nearestNeighbor = RoutePlanner.plan(ORIGIN_LAT, ORIGIN_LON, points[0], points[1], 0);
+        int[] improved = RoutePlanner.plan(ORIGIN_LAT, ORIGIN_LON, points[0], points[1], TimeUnit.MILLISECONDS.toNanos(40));
+
+        assertEveryStopOnce(improved, 1000);
+        assertTrue(RoutePlanner.length(ORIGIN_LAT, ORIGIN_LON, points[0], points[1], improved)
+                <= RoutePlanner.length(ORIGIN_LAT, ORIGIN_LON, points[0], points[1], nearestNeighbor), "2-opt empeoró la ruta");
+    }
+
+    @Test
+    public void RoutePlanner_stopsOnALine_visitInOrder() {
+        // Paradas hacia el este desde el origen, entregadas desordenadas
+        double[] lats = {ORIGIN_LAT, ORIGIN_LAT, ORIGIN_LAT, ORIGIN_LAT};
+        double[] lons = {ORIGIN_LON + 0.03, ORIGIN_LON + 0.01, ORIGIN_LON + 0.04, ORIGIN_LON + 0.02};
+
+        int[] order = RoutePlanner.plan(ORIGIN_LAT, ORIGIN_LON, lats, lons, TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertArrayEquals(new int[]{1, 3, 0, 2}, order);
+    }
+
+    @Test
+    public void RoutePlanner_noStops_returnEmptyRoute() {
+        assertEquals(0, RoutePlanner.plan(ORIGIN_LAT, ORIGIN_LON, new double[0], new double[0], 0).length);
+    }
+
+    private static void assertEveryStopOnce(int[] order, int stops) {
+        int[] sorted = order.clone();
+        Arrays.sort(sorted);
+        assertEquals(stops, sorted.length);
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(i, sorted[i]);
+        }
+    }
+
+    // Puntos al azar en ~20 km alrededor de Santiago
+    private static double[][] randomPoints(int n, long seed) {
+        Random random = new Random(seed);
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        for (int i = 0; i < n; i++) {
+            lats[i] = ORIGIN_LAT + (random.nextDouble() - 0.5) * 0.36;
+            lons[i] = ORIGIN_LON + (random.nextDouble() - 0.5) * 0.36;
+        }
+        return new double[][]{lats, lons};
+    }
+}
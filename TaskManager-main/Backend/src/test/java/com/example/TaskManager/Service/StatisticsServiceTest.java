@@ -0,0 +1,108 @@
+package com.example.TaskManager.Service;
+
+import com.example.TaskManager.DTO.DistanceBandDTO;
+import com.example.TaskManager.DTO.SectorCountProjection;
+import com.example.TaskManager.DTO.SectorDistanceCountProjection;
+import com.example.TaskManager.DTO.UserSectorCountProjection;
+import com.example.TaskManager.Repository.TaskRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StatisticsServiceTest {
+
+    @InjectMocks
+    private StatisticsServiceImpl statisticsService;
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Test
+    public void StatisticsService_completedByDistanceBand_returnCumulativeBands() {
+        when(taskRepository.completedBySectorWithDistanceForUser(1L)).thenReturn(List.of(
+                row(1L, "Centro", 200.0, 3L),
+                row(2L, "Providencia", 3500.0, 5L),
+                row(3L, "Aeropuerto", 15000.0, 1L)
+        ));
+
+        List<DistanceBandDTO> bands = statisticsService.completedByDistanceBand(1L, List.of(5000.0, 1000.0, 2000.0));
+
+        assertEquals(3, bands.size());
+        assertEquals(1000.0, bands.get(0).getRadiusMeters());
+        assertEquals(3L, bands.get(0).getTotal());
+        assertEquals(3L, bands.get(1).getTotal());
+        assertEquals(8L, bands.get(2).getTotal());
+        // Ranking por total: Providencia (5) antes que Centro (3)
+        assertEquals("Providencia", bands.get(2).getSectors().get(0).getSectorName());
+        verify(taskRepository, times(1)).completedBySectorWithDistanceForUser(1L);
+    }
+
+    @Test
+    public void StatisticsService_completedByDistanceBand_noTasks_returnEmptyBands() {
+        when(taskRepository.completedBySectorWithDistanceForUser(1L)).thenReturn(List.of());
+
+        List<DistanceBandDTO> bands = statisticsService.completedByDistanceBand(1L, List.of(1000.0));
+
+        assertEquals(1, bands.size());
+        assertEquals(0L, bands.get(0).getTotal());
+        assertTrue(bands.get(0).getSectors().isEmpty());
+    }
+
+    @Test
+    public void StatisticsService_toDistanceBands_reactiveRows_returnSameBands() {
+        // Las filas R2DBC de /api/rx pasan por el mismo armado de bandas
+        List<ReactiveStatisticsReader.SectorDistanceCount> rows = List.of(
+                new ReactiveStatisticsReader.SectorDistanceCount(1L, "Centro", 200.0, 3L),
+                new ReactiveStatisticsReader.SectorDistanceCount(2L, "Providencia", 3500.0, 5L)
+        );
+
+        List<DistanceBandDTO> bands = StatisticsServiceImpl.toDistanceBands(rows, List.of(5000.0, 1000.0, 1000.0));
+
+        assertEquals(2, bands.size());
+        assertEquals(3L, bands.get(0).getTotal());
+        assertEquals(8L, bands.get(1).getTotal());
+        assertEquals(2L, bands.get(1).getSectors().get(0).getSectorId());
+    }
+
+    @Test
+    public void ReactiveStatisticsReader_rows_serializeLikeProjections() throws Exception {
+        // /api/rx/stats responde con sus propias clases de fila: el JSON debe ser el de las proyecciones JPA
+        ObjectMapper mapper = new ObjectMapper();
+        SectorCountProjection projection = new SectorCountProjection() {
+            public Long getSectorId() { return 1L; }
+            public String getSectorName() { return "Centro"; }
+            public Long getTotal() { return 3L; }
+        };
+        UserSectorCountProjection userProjection = new UserSectorCountProjection() {
+            public Long getUserId() { return 7L; }
+            public String getUsername() { return "ana"; }
+            public Long getSectorId() { return 1L; }
+            public String getSectorName() { return "Centro"; }
+            public Long getTotal() { return 3L; }
+        };
+
+        assertEquals(mapper.valueToTree(projection),
+                mapper.valueToTree(new ReactiveStatisticsReader.SectorCount(1L, "Centro", 3L)));
+        assertEquals(mapper.valueToTree(userProjection),
+                mapper.valueToTree(new ReactiveStatisticsReader.UserSectorCount(7L, "ana", 1L, "Centro", 3L)));
+    }
+
+    private static SectorDistanceCountProjection row(Long sectorId, String name, Double meters, Long total) {
+        return new SectorDistanceCountProjection() {
+            public Double getMeters() { return meters; }
+            public Long getSectorId() { return sectorId; }
+            public String getSectorName() { return name; }
+            public Long getTotal() { return total; }
+        };
+    }
+}
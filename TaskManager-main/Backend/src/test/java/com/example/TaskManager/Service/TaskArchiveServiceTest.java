@@ -0,0 +1,103 @@
+package com.example.TaskManager.Service;
+
+import com.example.TaskManager.DTO.ArchivedIdProjection;
+import com.example.TaskManager.DTO.TaskPageDTO;
+import com.example.TaskManager.Entity.TaskArchive;
+import com.example.TaskManager.Event.TaskChangedEvent;
+import com.example.TaskManager.Repository.TaskArchiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskArchiveServiceTest {
+
+    @Mock
+    private TaskArchiveRepository taskArchiveRepository;
+    @Mock
+    private AdvisoryLock advisoryLock;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TaskArchiveService archiveService;
+
+    @BeforeEach
+    public void setUp() {
+        archiveService = new TaskArchiveService(taskArchiveRepository, advisoryLock, transactionTemplate,
+                eventPublisher, 90, 2, 0);
+        Mockito.lenient().when(transactionTemplate.execute(Mockito.any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    public void TaskArchiveService_archive_otherNodeHoldsLock_doNothing() {
+        when(advisoryLock.tryAcquire(TaskArchiveService.ARCHIVER_LOCK_KEY)).thenReturn(Optional.empty());
+
+        assertEquals(0, archiveService.archiveOldFinished());
+
+        verify(taskArchiveRepository, never()).archiveFinishedBefore(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    public void TaskArchiveService_archive_moveInKeysetChunks() {
+        AdvisoryLock.Handle handle = mock(AdvisoryLock.Handle.class);
+        when(advisoryLock.tryAcquire(TaskArchiveService.ARCHIVER_LOCK_KEY)).thenReturn(Optional.of(handle));
+        LocalDate before = LocalDate.now().minusDays(90);
+        when(taskArchiveRepository.archiveFinishedBefore(before, 0L, 2)).thenReturn(rows(1, 2));
+        when(taskArchiveRepository.archiveFinishedBefore(before, 2L, 2)).thenReturn(rows(5));
+
+        assertEquals(3, archiveService.archiveOldFinished());
+
+        verify(eventPublisher, times(2)).publishEvent(any(TaskChangedEvent.class));
+        verify(handle).close();
+    }
+
+    @Test
+    public void TaskArchiveService_findArchived_returnCursorOfLastRow() {
+        when(taskArchiveRepository.findByUserIdAndIdLessThanOrderByIdDesc(eq(1L), eq(100L), any(Limit.class)))
+                .thenReturn(List.of(archived(90L), archived(80L)));
+
+        TaskPageDTO page = archiveService.findArchived(1L, "100", 2);
+
+        assertEquals(2, page.getTasks().size());
+        assertTrue(page.getTasks().get(0).isFinished());
+        assertEquals("80", page.getNextCursor());
+    }
+
+    @Test
+    public void TaskArchiveService_findArchived_badCursor_throw() {
+        assertThrows(IllegalArgumentException.class, () -> archiveService.findArchived(1L, "abc", 10));
+    }
+
+    private static List<ArchivedIdProjection> rows(long... ids) {
+        return LongStream.of(ids).mapToObj(id -> (ArchivedIdProjection) new ArchivedIdProjection() {
+            public Long getId() { return id; }
+            public Long getSectorId() { return 1L; }
+        }).toList();
+    }
+
+    private static TaskArchive archived(Long id) {
+        return TaskArchive.builder().id(id).title("T" + id).dueDate(LocalDate.of(2024, 1, 1)).userId(1L).build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.TaskManager.Service;
 
+import com.example.TaskManager.DTO.NearbyTaskPageDTO;
+import com.example.TaskManager.DTO.NearbyTaskProjection;
 import com.example.TaskManager.DTO.TaskDTO;
 import com.example.TaskManager.Entity.Task;
 import com.example.TaskManager.Entity.User;
@@ -15,11 +17,18 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -33,10 +42,16 @@ public class TaskServiceTest {
     private TaskRepository taskRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @BeforeEach
     public void setUp() {
-
+        // Los borrados masivos corren cada tramo dentro de transactionTemplate: ejecutar el callback directo
+        Mockito.lenient().when(transactionTemplate.execute(Mockito.any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
@@ -225,9 +240,7 @@ public class TaskServiceTest {
 
     @Test
     public void TaskService_deleteTask_returnStatusNoContent() {
-        Task task = new Task().builder().id(1L).title("Test").description("Test").finished(false).important(false).date(null).build();
-
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.deleteTaskById(1L)).thenReturn(List.of(3L));
 
         ResponseEntity<TaskDTO> deletedTask = taskService.deleteById(1L);
 
@@ -238,7 +251,7 @@ public class TaskServiceTest {
     @Test
     public void TaskService_deleteANonExistsTask_returnStatusNoContent() {
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(taskRepository.deleteTaskById(1L)).thenReturn(List.of());
 
         ResponseEntity<TaskDTO> deletedTask = taskService.deleteById(1L);
 
@@ -246,5 +259,47 @@ public class TaskServiceTest {
         assertNull(deletedTask.getBody());
     }
 
+    @Test
+    public void TaskService_deleteTaskOfOtherUser_returnStatusNotFound() {
+        when(taskRepository.deleteTaskByIdAndUserId(1L, 2L)).thenReturn(List.of());
+
+        ResponseEntity<TaskDTO> deletedTask = taskService.deleteById(1L, 2L);
+
+        assertEquals(HttpStatus.NOT_FOUND, deletedTask.getStatusCode());
+    }
+
+    @Test
+    public void TaskService_findNear_returnCursorOfLastRow() {
+        NearbyTaskProjection first = Mockito.mock(NearbyTaskProjection.class);
+        NearbyTaskProjection last = Mockito.mock(NearbyTaskProjection.class);
+        when(last.getDistance()).thenReturn(1523.25);
+        when(last.getId()).thenReturn(9L);
+        when(taskRepository.findNearPoint(-33.44, -70.65, 2000, false, 2)).thenReturn(List.of(first, last));
+        when(taskRepository.findNearPointAfter(-33.44, -70.65, 2000, false, 1523.25, 9L, 2)).thenReturn(List.of(first));
+
+        NearbyTaskPageDTO page = taskService.findNear(-33.44, -70.65, 2000, false, null, 2);
+        NearbyTaskPageDTO nextPage = taskService.findNear(-33.44, -70.65, 2000, false, page.getNextCursor(), 2);
+
+        assertEquals("1523.25_9", page.getNextCursor());
+        assertEquals(1, nextPage.getTasks().size());
+        assertNull(nextPage.getNextCursor());
+    }
+
+    @Test
+    public void TaskService_deleteFinishedBefore_deleteInChunks() {
+        LocalDate before = LocalDate.of(2025, 1, 1);
+        List<Long> firstChunk = LongStream.rangeClosed(1, TaskServiceImpl.BULK_DELETE_CHUNK_SIZE).boxed().toList();
+        List<Long> lastChunk = List.of(1000L, 1001L);
+
+        when(taskRepository.findFinishedIdsBefore(Mockito.eq(before), Mockito.eq(0L), Mockito.any(Limit.class))).thenReturn(firstChunk);
+        when(taskRepository.findFinishedIdsBefore(Mockito.eq(before), Mockito.eq((long) TaskServiceImpl.BULK_DELETE_CHUNK_SIZE), Mockito.any(Limit.class))).thenReturn(lastChunk);
+        when(taskRepository.deleteTasksByIdIn(firstChunk)).thenReturn(Collections.nCopies(firstChunk.size(), 1L));
+        when(taskRepository.deleteTasksByIdIn(lastChunk)).thenReturn(List.of(2L, 2L));
+
+        int deleted = taskService.deleteFinishedBefore(before);
+
+        assertEquals(TaskServiceImpl.BULK_DELETE_CHUNK_SIZE + 2, deleted);
+    }
+
 
 }
@@ -0,0 +1,78 @@
+package com.example.TaskManager.Service;
+
+import com.example.TaskManager.DTO.TaskChangesDTO;
+import com.example.TaskManager.DTO.TaskDTO;
+import com.example.TaskManager.Entity.Task;
+import com.example.TaskManager.Mapper.TaskMapper;
+import com.example.TaskManager.Repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskSyncServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskSyncService taskSyncService;
+
+    @BeforeEach
+    public void setUp() {
+        taskSyncService = new TaskSyncService(taskRepository, new TaskMapper(), 30);
+    }
+
+    @Test
+    public void TaskSyncService_findChangesSince_returnOnlyChangesAndTombstones() {
+        when(taskRepository.changeWatermark()).thenReturn(900L);
+        when(taskRepository.syncHorizon()).thenReturn(100L);
+        when(taskRepository.findChangedSince(7L, 500L)).thenReturn(List.of(task(3L), task(4L)));
+        when(taskRepository.findTombstonedSince(7L, 500L)).thenReturn(List.of(9L));
+
+        TaskChangesDTO changes = taskSyncService.findChangesSince(7L, 500L);
+
+        assertFalse(changes.isFull());
+        assertEquals(900L, changes.getVersion());
+        assertEquals(List.of(3L, 4L), changes.getChanged().stream().map(TaskDTO::getId).toList());
+        assertEquals(List.of(9L), changes.getDeleted());
+        verify(taskRepository, never()).findByUser_Id(anyLong());
+    }
+
+    @Test
+    public void TaskSyncService_findChangesSince_sinceNullOrPurged_fullResync() {
+        when(taskRepository.changeWatermark()).thenReturn(900L);
+        when(taskRepository.syncHorizon()).thenReturn(100L);
+        when(taskRepository.findByUser_Id(7L)).thenReturn(List.of(task(1L)));
+
+        for (Long since : new Long[]{null, 100L}) {
+            TaskChangesDTO changes = taskSyncService.findChangesSince(7L, since);
+
+            assertTrue(changes.isFull());
+            assertEquals(900L, changes.getVersion());
+            assertEquals(List.of(1L), changes.getChanged().stream().map(TaskDTO::getId).toList());
+            assertTrue(changes.getDeleted().isEmpty());
+        }
+        verify(taskRepository, never()).findChangedSince(anyLong(), anyLong());
+        verify(taskRepository, never()).findTombstonedSince(anyLong(), anyLong());
+    }
+
+    @Test
+    public void TaskSyncService_purgeTombstones_useRetention() {
+        when(taskRepository.purgeTombstonesBefore(LocalDate.now().minusDays(30))).thenReturn(1);
+
+        assertEquals(1, taskSyncService.purgeTombstones());
+    }
+
+    private static Task task(Long id) {
+        return Task.builder().id(id).title("t" + id).dueDate(LocalDate.now()).build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.TaskManager.Service;
+
+import com.example.TaskManager.Entity.Sector;
+import com.example.TaskManager.Event.TaskChangedEvent;
+import com.example.TaskManager.Repository.SectorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TileServiceTest {
+
+    @Mock
+    private SectorRepository sectorRepository;
+
+    private TileService tileService;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    @BeforeEach
+    public void setUp() {
+        tileService = new TileService(sectorRepository, 100);
+    }
+
+    @Test
+    public void TileService_getTileTwice_queryOnce() {
+        when(sectorRepository.sectorTile(14, 4823, 9852)).thenReturn(new byte[]{1, 2, 3});
+
+        tileService.getTile(14, 4823, 9852);
+        byte[] tile = tileService.getTile(14, 4823, 9852);
+
+        assertArrayEquals(new byte[]{1, 2, 3}, tile);
+        verify(sectorRepository, times(1)).sectorTile(14, 4823, 9852);
+    }
+
+    @Test
+    public void TileService_taskChanged_invalidateOnlyTilesOfTheSector() {
+        // Santiago Centro
+        double lon = -70.6530, lat = -33.4450;
+        TileService.TileKey sectorTile = TileService.tileOf(lon, lat, 14);
+        TileService.TileKey otherTile = new TileService.TileKey(14, sectorTile.x() + 5, sectorTile.y());
+
+        when(sectorRepository.sectorTile(anyInt(), anyInt(), anyInt())).thenReturn(new byte[]{1});
+        when(sectorRepository.findAllById(Set.of(7L))).thenReturn(List.of(
+                Sector.builder().id(7L).name("Centro Cívico")
+                        .location(geometryFactory.createPoint(new Coordinate(lon, lat))).build()));
+
+        tileService.getTile(sectorTile.z(), sectorTile.x(), sectorTile.y());
+        tileService.getTile(otherTile.z(), otherTile.x(), otherTile.y());
+
+        tileService.onTaskChanged(TaskChangedEvent.deleted(List.of(1L), List.of(7L)));
+
+        tileService.getTile(sectorTile.z(), sectorTile.x(), sectorTile.y());
+        tileService.getTile(otherTile.z(), otherTile.x(), otherTile.y());
+
+        verify(sectorRepository, times(2)).sectorTile(sectorTile.z(), sectorTile.x(), sectorTile.y());
+        verify(sectorRepository, times(1)).sectorTile(otherTile.z(), otherTile.x(), otherTile.y());
+    }
+
+    @Test
+    public void TileService_sectorOnTileEdge_invalidateBothTiles() {
+        // Longitud justo en el borde entre dos tiles de zoom 14
+        int n = 1 << 14;
+        TileService.TileKey inner = TileService.tileOf(-70.6530, -33.4450, 14);
+        double lon = inner.x() * 360.0 / n - 180.0;
+        double lat = -33.4450;
+        TileService.TileKey right = TileService.tileOf(lon, lat, 14);
+        TileService.TileKey left = new TileService.TileKey(14, right.x() - 1, right.y());
+        TileService.TileKey far = new TileService.TileKey(14, right.x() + 1, right.y());
+
+        when(sectorRepository.sectorTile(anyInt(), anyInt(), anyInt())).thenReturn(new byte[]{1});
+        when(sectorRepository.findAllById(Set.of(7L))).thenReturn(List.of(
+                Sector.builder().id(7L).name("Borde")
+                        .location(geometryFactory.createPoint(new Coordinate(lon, lat))).build()));
+
+        for (TileService.TileKey key : List.of(left, right, far)) {
+            tileService.getTile(key.z(), key.x(), key.y());
+        }
+        tileService.onTaskChanged(TaskChangedEvent.deleted(List.of(1L), List.of(7L)));
+        for (TileService.TileKey key : List.of(left, right, far)) {
+            tileService.getTile(key.z(), key.x(), key.y());
+        }
+
+        verify(sectorRepository, times(2)).sectorTile(left.z(), left.x(), left.y());
+        verify(sectorRepository, times(2)).sectorTile(right.z(), right.x(), right.y());
+        verify(sectorRepository, times(1)).sectorTile(far.z(), far.x(), far.y());
+    }
+
+    @Test
+    public void TileService_coveringTiles_onlyContainingTileAwayFromEdges() {
+        TileService.TileKey key = TileService.tileOf(-70.6530, -33.4450, 10);
+
+        // Centro del tile: ningún vecino
+        int n = 1 << 10;
+        double lon = (key.x() + 0.5) * 360.0 / n - 180.0;
+        double lat = Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * (key.y() + 0.5) / n))));
+        assertEquals(Set.of(key), TileService.coveringTiles(lon, lat, 10));
+    }
+
+    @Test
+    public void TileService_tileOf_returnSlippyMapCoordinates() {
+        TileService.TileKey key = TileService.tileOf(-70.6530, -33.4450, 10);
+
+        assertEquals(10, key.z());
+        assertEquals(311, key.x());
+        assertEquals(613, key.y());
+    }
+}
@@ -0,0 +1,20 @@
+-- =================================================================
+-- Columnas geography generadas + índices GiST
+-- Para bases creadas antes de este cambio (schema_final.sql ya las incluye).
+-- Las consultas nativas usan u.geog / s.geog directo: el CAST(... AS geography)
+-- sobre la columna impedía usar idx_user_location / idx_sector_location.
+-- =================================================================
+
+ALTER TABLE db_user
+    ADD COLUMN IF NOT EXISTS geog geography(Point, 4326)
+    GENERATED ALWAYS AS (location::geography) STORED;
+
+ALTER TABLE sector
+    ADD COLUMN IF NOT EXISTS geog geography(Point, 4326)
+    GENERATED ALWAYS AS (location::geography) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_user_geog   ON db_user USING GIST (geog);
+CREATE INDEX IF NOT EXISTS idx_sector_geog ON sector  USING GIST (geog);
+
+ANALYZE db_user;
+ANALYZE sector;
@@ -0,0 +1,6 @@
+-- =================================================================
+-- Índice por sector en task
+-- Lo usan los tiles vectoriales (/api/tiles) al contar tareas de los sectores de cada tile.
+-- =================================================================
+
+CREATE INDEX IF NOT EXISTS idx_task_sector ON task (sector_id);
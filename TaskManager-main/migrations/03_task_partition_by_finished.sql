@@ -0,0 +1,41 @@
+-- =================================================================
+-- Particionar task por finished (pendientes / terminadas)
+-- Para bases creadas antes de este cambio (schema_final.sql ya crea la tabla particionada).
+-- Las consultas de pendientes (listas, más cercana, rutas, reparto) solo leen task_pending,
+-- que se mantiene chica aunque el historial de terminadas siga creciendo.
+-- Supone la tabla creada por schema_final.sql (id SERIAL con secuencia task_id_seq).
+-- =================================================================
+
+BEGIN;
+
+ALTER TABLE task RENAME TO task_unpartitioned;
+ALTER INDEX IF EXISTS idx_task_sector RENAME TO idx_task_sector_unpartitioned;
+
+CREATE TABLE task (
+    id          INTEGER NOT NULL DEFAULT nextval('task_id_seq'),
+    title       VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    due_date    DATE NOT NULL,
+    finished    BOOLEAN NOT NULL DEFAULT FALSE,
+    important   BOOLEAN NOT NULL DEFAULT FALSE,
+    user_id     INTEGER NOT NULL REFERENCES db_user(user_id),
+    sector_id   INTEGER REFERENCES sector(id),
+    PRIMARY KEY (id, finished)
+) PARTITION BY LIST (finished);
+
+CREATE TABLE task_pending  PARTITION OF task FOR VALUES IN (FALSE);
+CREATE TABLE task_finished PARTITION OF task FOR VALUES IN (TRUE);
+
+CREATE INDEX idx_task_sector ON task (sector_id);
+
+INSERT INTO task (id, title, description, due_date, finished, important, user_id, sector_id)
+SELECT id, title, description, due_date, finished, important, user_id, sector_id
+FROM task_unpartitioned;
+
+-- La secuencia pasa a la tabla nueva antes de borrar la vieja (si no, se borraría con ella)
+ALTER SEQUENCE task_id_seq OWNED BY task.id;
+DROP TABLE task_unpartitioned;
+
+COMMIT;
+
+ANALYZE task;
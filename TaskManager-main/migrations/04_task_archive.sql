@@ -0,0 +1,19 @@
+-- =================================================================
+-- Tabla de historial para el archivado de tareas terminadas
+-- Para bases creadas antes de este cambio (schema_final.sql ya la incluye).
+-- TaskArchiveService mueve aquí, por tramos, las terminadas con due_date antigua.
+-- =================================================================
+
+CREATE TABLE IF NOT EXISTS task_archive (
+    id          INTEGER PRIMARY KEY,
+    title       VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    due_date    DATE NOT NULL,
+    important   BOOLEAN NOT NULL DEFAULT FALSE,
+    user_id     INTEGER NOT NULL,
+    sector_id   INTEGER,
+    archived_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Lectura del historial por usuario (GET /api/tasks/archive, keyset por id descendente)
+CREATE INDEX IF NOT EXISTS idx_task_archive_user ON task_archive (user_id, id DESC);
@@ -0,0 +1,8 @@
+-- =================================================================
+-- Índice por fecha de vencimiento en la partición de pendientes
+-- Lo usa ReminderService al cargar (y extender día a día) las tareas que vencen
+-- dentro del horizonte de recordatorios: rango sobre due_date, sin recorrer task.
+-- Requiere migrations/03 (task particionada).
+-- =================================================================
+
+CREATE INDEX IF NOT EXISTS idx_task_pending_due ON task_pending (due_date);
@@ -0,0 +1,10 @@
+-- =================================================================
+-- Índice por usuario en task
+-- Las listas del usuario, sus estadísticas (completadas por sector, promedio de distancia)
+-- y la tarea pendiente más cercana filtran por user_id: sin índice recorren la partición
+-- completa. QueryPlanRegressionTest exige acceso por índice a task_pending/task_finished en
+-- esas consultas. Se crea en cada partición.
+-- Requiere migrations/03 (task particionada).
+-- =================================================================
+
+CREATE INDEX IF NOT EXISTS idx_task_user ON task (user_id);
@@ -0,0 +1,64 @@
+-- =================================================================
+-- Versión de cambio en task + lápidas para la sincronización delta
+-- Para bases creadas antes de este cambio (schema_final.sql ya lo incluye).
+-- GET /api/tasks/changes?since= devuelve solo lo creado, modificado o borrado desde esa versión.
+-- La versión es el xid de la transacción (pg_current_xact_id): requiere PostgreSQL >= 13.
+-- Requiere migrations/03 (task particionada).
+-- =================================================================
+
+BEGIN;
+
+-- Reescribe la tabla una vez: las filas existentes quedan con el xid de esta migración
+ALTER TABLE task
+    ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT);
+
+CREATE INDEX IF NOT EXISTS idx_task_user_version ON task (user_id, change_version);
+
+CREATE TABLE IF NOT EXISTS task_tombstone (
+    task_id        INTEGER NOT NULL,
+    user_id        INTEGER NOT NULL,
+    change_version BIGINT NOT NULL DEFAULT CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT),
+    deleted_at     TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (task_id, user_id)
+);
+CREATE INDEX IF NOT EXISTS idx_task_tombstone_user_version ON task_tombstone (user_id, change_version);
+
+CREATE TABLE IF NOT EXISTS task_sync_horizon (
+    singleton BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (singleton),
+    version   BIGINT NOT NULL
+);
+INSERT INTO task_sync_horizon (version) VALUES (0) ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION task_bump_version() RETURNS trigger AS $$
+BEGIN
+    NEW.change_version := CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT);
+    RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS task_bump_version ON task;
+CREATE TRIGGER task_bump_version BEFORE UPDATE ON task
+    FOR EACH ROW EXECUTE FUNCTION task_bump_version();
+
+CREATE OR REPLACE FUNCTION task_write_tombstone() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        -- Antes de PostgreSQL 15, mover la fila de partición (cambiar finished) también dispara AFTER DELETE
+        IF EXISTS (SELECT 1 FROM task WHERE id = OLD.id) THEN
+            RETURN NULL;
+        END IF;
+    ELSIF OLD.user_id = NEW.user_id THEN
+        RETURN NULL;
+    END IF;
+    INSERT INTO task_tombstone (task_id, user_id) VALUES (OLD.id, OLD.user_id)
+    ON CONFLICT (task_id, user_id) DO UPDATE
+        SET change_version = EXCLUDED.change_version, deleted_at = EXCLUDED.deleted_at;
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS task_write_tombstone ON task;
+CREATE TRIGGER task_write_tombstone AFTER DELETE OR UPDATE OF user_id ON task
+    FOR EACH ROW EXECUTE FUNCTION task_write_tombstone();
+
+COMMIT;
+
+ANALYZE task;
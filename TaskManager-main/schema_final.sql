@@ -1,6 +1,11 @@
 -- =================================================================
 -- 1. LIMPIEZA TOTAL (Borrar todo y empezar de cero)
 -- =================================================================
+DROP TABLE IF EXISTS task_sync_horizon CASCADE;
+DROP TABLE IF EXISTS task_tombstone CASCADE;
+DROP TABLE IF EXISTS task_event CASCADE;
+DROP TABLE IF EXISTS task_archive CASCADE;
+DROP TABLE IF EXISTS user_sector_distance CASCADE;
 DROP TABLE IF EXISTS task CASCADE;
 DROP TABLE IF EXISTS sector CASCADE;
 DROP TABLE IF EXISTS db_user CASCADE;
@@ -23,31 +28,143 @@ CREATE TABLE db_user (
     address      VARCHAR(255),
     latitude     DOUBLE PRECISION,
     longitude    DOUBLE PRECISION,
-    location     geometry(Point, 4326)
+    location     geometry(Point, 4326),
+    -- Copia geography de location, generada por la BD (para ST_DWithin / ST_Distance en metros sin CAST)
+    geog         geography(Point, 4326) GENERATED ALWAYS AS (location::geography) STORED
 );
 
 -- Tabla de sectores
 CREATE TABLE sector (
     id        SERIAL PRIMARY KEY,
     name      VARCHAR(100) NOT NULL UNIQUE,
-    location  geometry(Point, 4326) NOT NULL
+    location  geometry(Point, 4326) NOT NULL,
+    geog      geography(Point, 4326) GENERATED ALWAYS AS (location::geography) STORED
 );
 
--- Tabla de tareas
+-- Tabla de tareas, particionada por finished:
+--   task_pending  -> datos "calientes" (listas de pendientes, más cercana, rutas)
+--   task_finished -> historial que solo crece
+-- Las consultas con finished = false/true leen una sola partición. Al marcar/desmarcar una
+-- tarea, el UPDATE de finished mueve la fila de partición solo (PostgreSQL >= 11).
+-- La PK debe incluir la clave de partición; id sigue viniendo de una única secuencia.
 CREATE TABLE task (
-    id          SERIAL PRIMARY KEY,
+    id          SERIAL,
     title       VARCHAR(100) NOT NULL,
     description VARCHAR(500),
     due_date    DATE NOT NULL,
     finished    BOOLEAN NOT NULL DEFAULT FALSE,
     important   BOOLEAN NOT NULL DEFAULT FALSE,
     user_id     INTEGER NOT NULL REFERENCES db_user(user_id),
-    sector_id   INTEGER REFERENCES sector(id)
-);
+    sector_id   INTEGER REFERENCES sector(id),
+    -- Versión de cambio: xid de la transacción que creó o modificó la fila (trigger task_bump_version).
+    -- Crece con cada transacción; GET /api/tasks/changes?since= la usa para la sincronización delta.
+    change_version BIGINT NOT NULL DEFAULT CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT),
+    PRIMARY KEY (id, finished)
+) PARTITION BY LIST (finished);
+
+CREATE TABLE task_pending  PARTITION OF task FOR VALUES IN (FALSE);
+CREATE TABLE task_finished PARTITION OF task FOR VALUES IN (TRUE);
+
+-- Pendientes por fecha de vencimiento (carga de recordatorios por rango, ReminderService)
+CREATE INDEX idx_task_pending_due ON task_pending (due_date);
 
 -- Índices espaciales (Vital para el rendimiento de ST_Distance)
 CREATE INDEX idx_user_location   ON db_user USING GIST (location);
 CREATE INDEX idx_sector_location ON sector  USING GIST (location);
+CREATE INDEX idx_user_geog       ON db_user USING GIST (geog);
+CREATE INDEX idx_sector_geog     ON sector  USING GIST (geog);
+
+-- Conteos por sector (tiles del mapa, estadísticas globales)
+CREATE INDEX idx_task_sector ON task (sector_id);
+
+-- Tareas de un usuario (listas, estadísticas por usuario, más cercana)
+CREATE INDEX idx_task_user ON task (user_id);
+
+-- Cambios de un usuario desde una versión (GET /api/tasks/changes?since=)
+CREATE INDEX idx_task_user_version ON task (user_id, change_version);
+
+-- Distancias precalculadas usuario -> sector (en metros, geodésicas)
+-- Se recalculan solo al cambiar la ubicación de un usuario o sector (UserSectorDistanceService)
+CREATE TABLE user_sector_distance (
+    user_id    INTEGER NOT NULL REFERENCES db_user(user_id) ON DELETE CASCADE,
+    sector_id  INTEGER NOT NULL REFERENCES sector(id) ON DELETE CASCADE,
+    meters     DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (user_id, sector_id)
+);
+CREATE INDEX idx_user_sector_distance_sector ON user_sector_distance (sector_id);
+
+-- Historial de tareas terminadas antiguas (las mueve TaskArchiveService desde task)
+-- Sin FK: el historial se conserva aunque luego se borre el usuario o el sector
+CREATE TABLE task_archive (
+    id          INTEGER PRIMARY KEY,
+    title       VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    due_date    DATE NOT NULL,
+    important   BOOLEAN NOT NULL DEFAULT FALSE,
+    user_id     INTEGER NOT NULL,
+    sector_id   INTEGER,
+    archived_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+CREATE INDEX idx_task_archive_user ON task_archive (user_id, id DESC);
+
+-- Outbox de cambios de tareas: se inserta en la misma transacción que el cambio y lo
+-- consume TaskEventConsumer en lotes (FOR UPDATE SKIP LOCKED), borrando lo procesado
+CREATE TABLE task_event (
+    id          BIGSERIAL PRIMARY KEY,
+    type        VARCHAR(20) NOT NULL,
+    task_ids    BIGINT[] NOT NULL,
+    sector_ids  BIGINT[] NOT NULL,
+    created_at  TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Lápidas de tareas que salieron de la lista de un usuario (borradas, archivadas o reasignadas),
+-- con la misma versión de cambio que task. Las escribe el trigger task_write_tombstone; TaskSyncService
+-- borra las antiguas y sube task_sync_horizon.
+CREATE TABLE task_tombstone (
+    task_id        INTEGER NOT NULL,
+    user_id        INTEGER NOT NULL,
+    change_version BIGINT NOT NULL DEFAULT CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT),
+    deleted_at     TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (task_id, user_id)
+);
+CREATE INDEX idx_task_tombstone_user_version ON task_tombstone (user_id, change_version);
+
+-- Mayor versión de lápida ya purgada: un cliente con since <= version debe recargar la lista completa
+CREATE TABLE task_sync_horizon (
+    singleton BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (singleton),
+    version   BIGINT NOT NULL
+);
+INSERT INTO task_sync_horizon (version) VALUES (0);
+
+-- Toda modificación de una tarea le asigna la versión (xid) de su transacción
+CREATE OR REPLACE FUNCTION task_bump_version() RETURNS trigger AS $$
+BEGIN
+    NEW.change_version := CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT);
+    RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+CREATE TRIGGER task_bump_version BEFORE UPDATE ON task
+    FOR EACH ROW EXECUTE FUNCTION task_bump_version();
+
+-- Lápida para el dueño anterior cuando la tarea se borra o cambia de usuario
+CREATE OR REPLACE FUNCTION task_write_tombstone() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        -- Antes de PostgreSQL 15, mover la fila de partición (cambiar finished) también dispara AFTER DELETE
+        IF EXISTS (SELECT 1 FROM task WHERE id = OLD.id) THEN
+            RETURN NULL;
+        END IF;
+    ELSIF OLD.user_id = NEW.user_id THEN
+        RETURN NULL;
+    END IF;
+    INSERT INTO task_tombstone (task_id, user_id) VALUES (OLD.id, OLD.user_id)
+    ON CONFLICT (task_id, user_id) DO UPDATE
+        SET change_version = EXCLUDED.change_version, deleted_at = EXCLUDED.deleted_at;
+    RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+CREATE TRIGGER task_write_tombstone AFTER DELETE OR UPDATE OF user_id ON task
+    FOR EACH ROW EXECUTE FUNCTION task_write_tombstone();
 
 -- =================================================================
 -- 3. INSERCIÓN DE DATOS ESTRATÉGICOS
@@ -369,4 +486,15 @@ BEGIN
     ('Limpieza plaza pequeña', 'Trabajo finalizado y registrado.',             '2025-10-15', TRUE,  FALSE, v_user_id, v_sec2);
 
   RAISE NOTICE 'Usuario creado/actualizado: user_demo (ID=%) con 2 tareas.', v_user_id;
-END $$;
\ No newline at end of file
+END $$;
+
+
+-- =================================================================
+-- 4. DISTANCIAS PRECALCULADAS (para los usuarios y sectores de arriba)
+-- =================================================================
+INSERT INTO user_sector_distance (user_id, sector_id, meters)
+SELECT u.user_id, s.id, ST_Distance(u.geog, s.geog)
+FROM db_user u
+CROSS JOIN sector s
+WHERE u.geog IS NOT NULL AND s.geog IS NOT NULL
+ON CONFLICT (user_id, sector_id) DO UPDATE SET meters = EXCLUDED.meters;